@@ -0,0 +1,96 @@
+package br.com.maxwellponte.webfluxconcepts.controllers.exceptions;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserMetrics;
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.controllers.UserController;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserRequest;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ObjectNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@State(Scope.Benchmark)
+public class ControllerExceptionHandlerBenchmark {
+
+    private static final String ID = "63b6a3f27b1d2e4b5a9c0d12";
+
+    private ControllerExceptionHandler handler;
+    private ServerHttpRequest request;
+    private DuplicateKeyException duplicateKey;
+    private WebExchangeBindException bindException;
+    private ObjectWriter responseWriter;
+    private ObjectWriter errorWriter;
+    private UserResponse user;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new ControllerExceptionHandler(new UserMetrics(new SimpleMeterRegistry(), new UserProperties()));
+        request = MockServerHttpRequest.get("/users/" + ID).build();
+        duplicateKey = new DuplicateKeyException("E11000 duplicate key error collection: webflux-concepts.user index: email_live dup key: { email: \"maxwell@mail.com\" }");
+
+        UserRequest userRequest = new UserRequest(" Maxwell", "maxwell@mail.com", "123456");
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(userRequest, "userRequest");
+        bindingResult.addError(new FieldError("userRequest", "name", "field cannot have blank spaces at the beginning or at end"));
+        bindException = new WebExchangeBindException(
+                new MethodParameter(UserController.class.getMethod("save", UserRequest.class), 0), bindingResult);
+
+        responseWriter = Jackson2ObjectMapperBuilder.json().build().writerFor(UserResponse.class);
+        errorWriter = Jackson2ObjectMapperBuilder.json().build().writerFor(StandardError.class);
+        user = new UserResponse(ID, "Maxwell", "maxwell@mail.com");
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> userFound() throws JsonProcessingException {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(responseWriter.writeValueAsBytes(user));
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> objectNotFound() {
+        return handler.objectNotFoundException(new ObjectNotFoundException("Object not Found. Id: " + ID + ", type: User"), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> objectNotFoundWithStandardError() throws JsonProcessingException {
+        RuntimeException ex = new RuntimeException(String.format("Object not Found. Id: %s, type: %s", ID, "User"));
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorWriter.writeValueAsBytes(StandardError.builder()
+                        .timestamp(LocalDateTime.now())
+                        .path(request.getPath().toString())
+                        .status(HttpStatus.NOT_FOUND.value())
+                        .error(HttpStatus.NOT_FOUND.getReasonPhrase())
+                        .message(ex.getMessage())
+                        .build()));
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> duplicateKey() {
+        return handler.duplicateKeyException(duplicateKey, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Mono<ValidationError>> validationError() {
+        return handler.validationError(bindException, request);
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.maxwellponte.webfluxconcepts.mappers;
+
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserRequest;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class UserMapperBenchmark {
+
+    private UserMapper mapper;
+    private UserRequest request;
+    private UserRequest partialRequest;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        mapper = Mappers.getMapper(UserMapper.class);
+        request = new UserRequest("Maxwell", "maxwell@mail.com", "123456");
+        partialRequest = new UserRequest("Joana", null, null);
+        user = User.builder().id("63b6a3f27b1d2e4b5a9c0d12").name("Maxwell").email("maxwell@mail.com").password("hash").build();
+    }
+
+    @Benchmark
+    public User toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public User toExistingEntity() {
+        return mapper.toEntity(partialRequest, User.builder().id(user.getId()).name(user.getName()).email(user.getEmail()).build());
+    }
+
+    @Benchmark
+    public UserResponse toResponse() {
+        return mapper.toResponse(user);
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.maxwellponte.webfluxconcepts.validators;
+
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Set;
+
+@State(Scope.Benchmark)
+public class UserRequestValidationBenchmark {
+
+    private TrimStringValidator trimStringValidator;
+    private ValidatorFactory factory;
+    private Validator validator;
+    private UserRequest validRequest;
+    private UserRequest invalidRequest;
+
+    @Setup
+    public void setUp() {
+        trimStringValidator = new TrimStringValidator();
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        validRequest = new UserRequest("Maxwell", "maxwell@mail.com", "123456");
+        invalidRequest = new UserRequest(" Maxwell", "maxwell", "1");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public boolean trimStringValid() {
+        return trimStringValidator.isValid(validRequest.name(), null);
+    }
+
+    @Benchmark
+    public boolean trimStringInvalid() {
+        return trimStringValidator.isValid(invalidRequest.name(), null);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequest>> validateValidRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequest>> validateInvalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.maxwellponte.webfluxconcepts.loadtest;
+
+import br.com.maxwellponte.webfluxconcepts.WebfluxConceptsApplication;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.Arrays;
+
+public class LoadTestApplication {
+
+    private static final String MONGO_URI_ARG = "--spring.data.mongodb.uri=";
+
+    public static void main(String[] args) {
+        if (Arrays.stream(args).anyMatch(arg -> arg.startsWith(MONGO_URI_ARG))) {
+            run(args);
+            return;
+        }
+
+        try (TransitionWalker.ReachedState<RunningMongodProcess> mongod = Mongod.instance().start(Version.Main.V6_0)) {
+            String uri = String.format("mongodb://%s:%d/webflux-concepts-loadtest",
+                    mongod.current().getServerAddress().getHost(), mongod.current().getServerAddress().getPort());
+            String[] withUri = Arrays.copyOf(args, args.length + 1);
+            withUri[args.length] = MONGO_URI_ARG + uri;
+            run(withUri);
+        }
+    }
+
+    private static void run(String[] args) {
+        SpringApplication.exit(new SpringApplicationBuilder(WebfluxConceptsApplication.class, LoadTestRunner.class)
+                .profiles("loadtest")
+                .run(args));
+    }
+}
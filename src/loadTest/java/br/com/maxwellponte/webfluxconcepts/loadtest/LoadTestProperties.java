@@ -0,0 +1,28 @@
+package br.com.maxwellponte.webfluxconcepts.loadtest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loadtest")
+public class LoadTestProperties {
+
+    private int concurrency = 64;
+    private int seedUsers = 1_000;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private int pageSize = 20;
+    private int importUsers = 5_000;
+    private Mix mix = new Mix();
+
+    @Data
+    public static class Mix {
+        private int save = 10;
+        private int findById = 60;
+        private int findAll = 10;
+        private int update = 15;
+        private int delete = 5;
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.maxwellponte.webfluxconcepts.loadtest;
+
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserRequest;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserImportResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestRunner implements ApplicationRunner {
+
+    private static final long MAX_LATENCY_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final LoadTestProperties properties;
+    private final Environment environment;
+
+    enum Operation { SAVE, FIND_BY_ID, FIND_ALL, UPDATE, DELETE }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + environment.getProperty("local.server.port") + "/users")
+                .build();
+
+        List<String> ids = create(client, properties.getSeedUsers()).collectList().block();
+        log.info("Seeded {} users, warming up for {}", ids.size(), properties.getWarmup());
+
+        drive(client, ids, properties.getWarmup());
+        log.info("Measuring {} with concurrency {}", properties.getDuration(), properties.getConcurrency());
+        Map<Operation, Stats> stats = drive(client, ids, properties.getDuration());
+
+        report(stats, properties.getDuration());
+        compareImports(client);
+    }
+
+    private void compareImports(WebClient client) {
+        int count = properties.getImportUsers();
+        log.info("Inserting {} users through /bulk and {} through single POSTs with concurrency {}", count, count, properties.getConcurrency());
+
+        long bulk = elapsed(create(client, count).then());
+        long single = elapsed(Flux.range(0, count)
+                .flatMap(i -> client.post()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(newUser())
+                        .retrieve()
+                        .toBodilessEntity(), properties.getConcurrency())
+                .then());
+
+        log.info(String.format("%-10s %10s %10s %10s", "insert", "users", "seconds", "users/s"));
+        log.info(String.format("%-10s %10d %10.3f %10.1f", "bulk", count, bulk / 1e9, count / (bulk / 1e9)));
+        log.info(String.format("%-10s %10d %10.3f %10.1f", "single", count, single / 1e9, count / (single / 1e9)));
+    }
+
+    private static long elapsed(Mono<Void> work) {
+        long start = System.nanoTime();
+        work.block();
+        return System.nanoTime() - start;
+    }
+
+    private Map<Operation, Stats> drive(WebClient client, List<String> ids, Duration duration) {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        Flux.range(0, properties.getConcurrency())
+                .flatMap(worker -> Mono.defer(() -> execute(client, ids, nextOperation(), stats))
+                        .repeat(() -> System.nanoTime() < deadline), properties.getConcurrency())
+                .then()
+                .block();
+
+        return stats;
+    }
+
+    private Mono<HttpStatusCode> execute(WebClient client, List<String> ids, Operation operation, Map<Operation, Stats> stats) {
+        String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+
+        return switch (operation) {
+            case SAVE -> timed(stats.get(operation), client.post()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(newUser()));
+            case FIND_BY_ID -> timed(stats.get(operation), client.get()
+                    .uri("/{id}", id)
+                    .accept(MediaType.APPLICATION_JSON));
+            case FIND_ALL -> timed(stats.get(operation), client.get()
+                    .uri(uri -> uri.queryParam("limit", properties.getPageSize()).build())
+                    .accept(MediaType.APPLICATION_JSON));
+            case UPDATE -> timed(stats.get(operation), client.patch()
+                    .uri("/{id}", id)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new UserRequest("Load Test " + ThreadLocalRandom.current().nextInt(1_000), null, null)));
+            case DELETE -> create(client, 1)
+                    .next()
+                    .flatMap(created -> timed(stats.get(operation), client.delete().uri("/{id}", created)));
+        };
+    }
+
+    private Mono<HttpStatusCode> timed(Stats stats, WebClient.RequestHeadersSpec<?> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                    .doOnNext(status -> stats.record(System.nanoTime() - start, status))
+                    .onErrorResume(ex -> {
+                        stats.errors.increment();
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private Flux<String> create(WebClient client, int count) {
+        return client.post()
+                .uri("/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(Flux.range(0, count).map(i -> newUser()), UserRequest.class)
+                .retrieve()
+                .bodyToFlux(UserImportResponse.class)
+                .filter(result -> result.id() != null)
+                .map(UserImportResponse::id);
+    }
+
+    private UserRequest newUser() {
+        return new UserRequest("Load Test", "loadtest-" + UUID.randomUUID() + "@mail.com", "123456");
+    }
+
+    private Operation nextOperation() {
+        LoadTestProperties.Mix mix = properties.getMix();
+        int[] weights = { mix.getSave(), mix.getFindById(), mix.getFindAll(), mix.getUpdate(), mix.getDelete() };
+        int roll = ThreadLocalRandom.current().nextInt(mix.getSave() + mix.getFindById() + mix.getFindAll() + mix.getUpdate() + mix.getDelete());
+
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return Operation.values()[i];
+            }
+        }
+        return Operation.FIND_BY_ID;
+    }
+
+    private void report(Map<Operation, Stats> stats, Duration duration) {
+        log.info(String.format("%-10s %10s %10s %10s %10s %10s %10s %8s %8s",
+                "operation", "count", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "non-2xx", "errors"));
+
+        stats.forEach((operation, stat) -> {
+            Histogram histogram = stat.latencies;
+            log.info(String.format("%-10s %10d %10.1f %10.3f %10.3f %10.3f %10.3f %8d %8d",
+                    operation,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / (double) duration.toSeconds(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    stat.failures.sum(),
+                    stat.errors.sum()));
+        });
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    static class Stats {
+        private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        void record(long nanos, HttpStatusCode status) {
+            latencies.recordValue(Math.min(nanos, MAX_LATENCY_NANOS));
+            if (!status.is2xxSuccessful()) {
+                failures.increment();
+            }
+        }
+    }
+}
@@ -2,8 +2,10 @@ package br.com.maxwellponte.webfluxconcepts;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class WebfluxConceptsApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,122 @@
+package br.com.maxwellponte.webfluxconcepts.config;
+
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.BadRequestException;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ObjectNotFoundException;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.PreconditionFailedException;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ServiceUnavailableException;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class UserMetrics {
+
+    public static final String SERVICE = "users.service";
+    public static final String REPOSITORY = "users.repository";
+
+    private final MeterRegistry registry;
+    private final boolean reactorOperators;
+    private final boolean tenantTags;
+
+    public UserMetrics(final MeterRegistry registry, final UserProperties properties) {
+        this.registry = registry;
+        this.reactorOperators = properties.getMetrics().isReactorOperators();
+        this.tenantTags = properties.getTenancy().isEnabled();
+    }
+
+    public <T> Mono<T> timed(final String layer, final String operation, final Mono<T> source) {
+        Mono<T> timed = Mono.deferContextual(context -> {
+            Measurement measurement = new Measurement(layer, operation, tenant(context));
+            return source.doOnSuccess(value -> measurement.stop("success"))
+                    .doOnError(ex -> measurement.stop(outcome(ex)))
+                    .doOnCancel(() -> measurement.stop("cancelled"));
+        });
+        return reactorOperators ? timed.name(layer + "." + operation).tap(Micrometer.metrics(registry)) : timed;
+    }
+
+    public <T> Flux<T> timed(final String layer, final String operation, final Flux<T> source) {
+        Flux<T> timed = Flux.deferContextual(context -> {
+            Measurement measurement = new Measurement(layer, operation, tenant(context));
+            return source.doOnComplete(() -> measurement.stop("success"))
+                    .doOnError(ex -> measurement.stop(outcome(ex)))
+                    .doOnCancel(() -> measurement.stop("cancelled"));
+        });
+        return reactorOperators ? timed.name(layer + "." + operation).tap(Micrometer.metrics(registry)) : timed;
+    }
+
+    public void count(final String operation, final String outcome) {
+        Counter.builder("users.outcomes")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public static String outcome(final Throwable ex) {
+        if (ex instanceof ObjectNotFoundException) {
+            return "not_found";
+        }
+        if (ex instanceof DuplicateKeyException) {
+            return "duplicate_key";
+        }
+        if (ex instanceof MongoBulkWriteException bulk && bulk.getWriteErrors().stream()
+                .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY)) {
+            return "duplicate_key";
+        }
+        if (ex instanceof BadRequestException) {
+            return "validation";
+        }
+        if (ex instanceof PreconditionFailedException) {
+            return "precondition_failed";
+        }
+        if (ex instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        if (ex instanceof ServiceUnavailableException) {
+            return "unavailable";
+        }
+        return "error";
+    }
+
+    private String tenant(ContextView context) {
+        return tenantTags ? TenantContext.current(context) : null;
+    }
+
+    private final class Measurement {
+        private final String layer;
+        private final String operation;
+        private final String tenant;
+        private final Timer.Sample sample = Timer.start(registry);
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        private Measurement(String layer, String operation, String tenant) {
+            this.layer = layer;
+            this.operation = operation;
+            this.tenant = tenant;
+        }
+
+        private void stop(String outcome) {
+            if (stopped.compareAndSet(false, true)) {
+                Timer.Builder timer = Timer.builder(layer)
+                        .tag("operation", operation)
+                        .tag("outcome", outcome);
+                sample.stop((tenant == null ? timer : timer.tag("tenant", tenant)).register(registry));
+                if (SERVICE.equals(layer)) {
+                    count(operation, outcome);
+                }
+            }
+        }
+    }
+}
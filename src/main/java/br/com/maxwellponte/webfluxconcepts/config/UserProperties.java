@@ -0,0 +1,179 @@
+package br.com.maxwellponte.webfluxconcepts.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "users")
+public class UserProperties {
+
+    private Pagination pagination = new Pagination();
+    private Bulk bulk = new Bulk();
+    private Cache cache = new Cache();
+    private Batch batch = new Batch();
+    private BatchGet batchGet = new BatchGet();
+    private Count count = new Count();
+    private RateLimit rateLimit = new RateLimit();
+    private Admission admission = new Admission();
+    private Admission streamAdmission = new Admission();
+    private Resilience resilience = new Resilience();
+    private ReadRouting readRouting = new ReadRouting();
+    private Outbox outbox = new Outbox();
+    private SoftDelete softDelete = new SoftDelete();
+    private Sharding sharding = new Sharding();
+    private Tenancy tenancy = new Tenancy();
+    private WriteBehind writeBehind = new WriteBehind();
+    private Password password = new Password();
+    private Metrics metrics = new Metrics();
+
+    @Data
+    public static class Pagination {
+        private int defaultLimit = 20;
+        private int maxLimit = 100;
+        private int streamBatchSize = 100;
+    }
+
+    @Data
+    public static class Bulk {
+        private int chunkSize = 500;
+        private Duration chunkTimeout = Duration.ofMillis(100);
+        private int concurrency = 2;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(5);
+        private long negativeMaximumSize = 10_000;
+        private Duration negativeTtl = Duration.ofSeconds(5);
+        private ChangeStream changeStream = new ChangeStream();
+    }
+
+    @Data
+    public static class ChangeStream {
+        private boolean enabled = false;
+        private String nodeId = "webflux-concepts";
+        private Duration ttl = Duration.ofHours(1);
+        private Duration tokenFlushInterval = Duration.ofSeconds(1);
+        private Duration minBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Batch {
+        private boolean enabled = true;
+        private int maxSize = 100;
+        private Duration window = Duration.ofMillis(2);
+        private int concurrency = 8;
+        private int maxPending = 10_000;
+    }
+
+    @Data
+    public static class BatchGet {
+        private int maxIds = 500;
+    }
+
+    @Data
+    public static class Count {
+        private long maximumSize = 1_000;
+        private Duration refreshAfter = Duration.ofSeconds(10);
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = false;
+        private int permitsPerSecond = 100;
+        private int burst = 200;
+        private long maximumClients = 100_000;
+        private Duration idleTimeout = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Admission {
+        private boolean enabled = true;
+        private int maxInFlight = 100;
+        private int maxQueued = 200;
+        private Duration queueTimeout = Duration.ofMillis(500);
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Resilience {
+        private Duration readTimeout = Duration.ofSeconds(2);
+        private Duration writeTimeout = Duration.ofSeconds(5);
+        private int readRetries = 2;
+        private Duration minBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofMillis(500);
+        private double jitter = 0.5;
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class ReadRouting {
+        private boolean secondaryReads = false;
+        private Duration maxStaleness = Duration.ofSeconds(90);
+        private boolean readYourWrites = true;
+    }
+
+    @Data
+    public static class Outbox {
+        private boolean enabled = false;
+        private String nodeId = "webflux-concepts";
+        private int batchSize = 100;
+        private Duration pollInterval = Duration.ofMillis(500);
+        private Duration lease = Duration.ofSeconds(30);
+        private Duration minBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class SoftDelete {
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class Sharding {
+        private boolean enabled = false;
+        private boolean createMissingIndexes = true;
+    }
+
+    @Data
+    public static class Tenancy {
+        private boolean enabled = false;
+        private String header = "X-Tenant-Id";
+        private boolean required = false;
+        private List<String> tenants = new ArrayList<>();
+        private Admission admission = new Admission();
+    }
+
+    @Data
+    public static class WriteBehind {
+        public enum Durability { FLUSHED, BUFFERED }
+
+        private boolean enabled = false;
+        private Duration window = Duration.ofMillis(200);
+        private int stripes = 8;
+        private int maxPending = 10_000;
+        private Durability durability = Durability.FLUSHED;
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Password {
+        private int strength = 10;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 100;
+    }
+
+    @Data
+    public static class Metrics {
+        private boolean reactorOperators = false;
+    }
+}
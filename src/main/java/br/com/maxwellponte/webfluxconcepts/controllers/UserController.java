@@ -1,9 +1,18 @@
 package br.com.maxwellponte.webfluxconcepts.controllers;
 
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserBatchGetRequest;
 import br.com.maxwellponte.webfluxconcepts.models.requests.UserRequest;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserSearchRequest;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserBatchGetResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserCountResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserImportResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserPageResponse;
 import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -13,14 +22,39 @@ public interface UserController {
     @PostMapping
     ResponseEntity<Mono<Void>> save(@Valid @RequestBody UserRequest request);
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<Flux<UserImportResponse>> saveAll(@RequestBody Flux<UserRequest> requests);
+
+    @PostMapping(value = "/batch-get", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<Flux<UserBatchGetResponse>> findAllById(@Valid @RequestBody UserBatchGetRequest request);
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<Flux<UserResponse>> export(@RequestParam(required = false) String after);
+
+    @GetMapping(value = "/export", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Flux<ServerSentEvent<UserResponse>> exportEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                     @RequestParam(required = false) String after);
+
+    @GetMapping(value = "/count")
+    ResponseEntity<Mono<UserCountResponse>> count(@ModelAttribute UserSearchRequest search,
+                                                  @RequestParam(defaultValue = "false") boolean exact);
+
     @GetMapping(value = "/{id}")
-    ResponseEntity<Mono<UserResponse>> findById(@PathVariable String id);
+    Mono<ResponseEntity<UserResponse>> findById(@PathVariable String id);
 
     @GetMapping
-    ResponseEntity<Flux<UserResponse>> findAll();
+    ResponseEntity<Mono<UserPageResponse>> findAll(@ModelAttribute UserSearchRequest search,
+                                                   @RequestParam(required = false) String after,
+                                                   @RequestParam(required = false) Integer limit);
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<Flux<UserResponse>> stream(@ModelAttribute UserSearchRequest search,
+                                              @RequestParam(required = false) String after);
 
     @PatchMapping(value = "/{id}")
-    ResponseEntity<Mono<UserResponse>> update(@PathVariable String id, @RequestBody UserRequest request);
+    Mono<ResponseEntity<UserResponse>> update(@PathVariable String id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestBody UserRequest request);
 
     @DeleteMapping(value = "/{id}")
     ResponseEntity<Mono<Void>> delete(@PathVariable String id);
@@ -1,7 +1,14 @@
 package br.com.maxwellponte.webfluxconcepts.controllers.exceptions;
 
+import br.com.maxwellponte.webfluxconcepts.config.UserMetrics;
+import br.com.maxwellponte.webfluxconcepts.repositories.DuplicateKeys;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.BadRequestException;
 import br.com.maxwellponte.webfluxconcepts.services.exceptions.ObjectNotFoundException;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.PreconditionFailedException;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ServiceUnavailableException;
+import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.validation.FieldError;
@@ -13,28 +20,33 @@ import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class ControllerExceptionHandler {
 
+    private static final ErrorBody DUPLICATE_EMAIL = ErrorBody.of(BAD_REQUEST, DuplicateKeys.EMAIL_MESSAGE);
+    private static final ErrorBody DUPLICATE_KEY = ErrorBody.of(BAD_REQUEST, DuplicateKeys.KEY_MESSAGE);
+    private static final ErrorBody OBJECT_NOT_FOUND = ErrorBody.of(NOT_FOUND);
+    private static final ErrorBody BAD_REQUEST_ERROR = ErrorBody.of(BAD_REQUEST);
+    private static final ErrorBody UNAVAILABLE = ErrorBody.of(SERVICE_UNAVAILABLE);
+    private static final ErrorBody PRECONDITION = ErrorBody.of(PRECONDITION_FAILED);
+    private static final ErrorBody MODIFIED = ErrorBody.of(CONFLICT, "User was modified concurrently, reload and retry");
+
+    private final UserMetrics metrics;
+
     @ExceptionHandler(DuplicateKeyException.class)
-    ResponseEntity<Mono<StandardError>> duplicateKeyException(DuplicateKeyException ex, ServerHttpRequest request){
-        return ResponseEntity.badRequest()
-                .body(Mono.just(
-                        StandardError.builder()
-                                .timestamp(LocalDateTime.now())
-                                .path(request.getPath().toString())
-                                .status(BAD_REQUEST.value())
-                                .error(BAD_REQUEST.getReasonPhrase())
-                                .message(verifyDupKey(ex.getMessage()))
-                                .build()
-                        )
-                );
+    ResponseEntity<byte[]> duplicateKeyException(DuplicateKeyException ex, ServerHttpRequest request){
+        return (DuplicateKeys.isEmail(ex.getMessage()) ? DUPLICATE_EMAIL : DUPLICATE_KEY).response(request);
     }
 
     @ExceptionHandler(WebExchangeBindException.class)
     public ResponseEntity<Mono<ValidationError>> validationError(WebExchangeBindException ex, ServerHttpRequest request){
+        metrics.count("request", "validation");
         ValidationError error = new ValidationError(LocalDateTime.now(), request.getPath().toString(), BAD_REQUEST.value(), "Validation Errors", "Error on validation attributes");
 
         for (FieldError fr : ex.getBindingResult().getFieldErrors()){
@@ -45,24 +57,27 @@ public class ControllerExceptionHandler {
     }
 
     @ExceptionHandler(ObjectNotFoundException.class)
-    public ResponseEntity<Mono<StandardError>> objectNotFoundException(ObjectNotFoundException ex,ServerHttpRequest request){
-        return ResponseEntity.status(NOT_FOUND)
-                .body(Mono.just(
-                        StandardError.builder()
-                                .timestamp(LocalDateTime.now())
-                                .path(request.getPath().toString())
-                                .status(NOT_FOUND.value())
-                                .error(NOT_FOUND.getReasonPhrase())
-                                .message(ex.getMessage())
-                                .build()
-                        )
-                );
+    public ResponseEntity<byte[]> objectNotFoundException(ObjectNotFoundException ex, ServerHttpRequest request){
+        return OBJECT_NOT_FOUND.response(request, ex.getMessage());
     }
 
-    private String verifyDupKey(String message){
-        if (message.contains("email dup key")){
-            return "Email already registered";
-        }
-        return "Dup key exception";
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<byte[]> badRequestException(BadRequestException ex, ServerHttpRequest request){
+        return BAD_REQUEST_ERROR.response(request, ex.getMessage());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<byte[]> serviceUnavailableException(ServiceUnavailableException ex, ServerHttpRequest request){
+        return UNAVAILABLE.response(request, ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<byte[]> preconditionFailedException(PreconditionFailedException ex, ServerHttpRequest request){
+        return PRECONDITION.response(request, ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> optimisticLockingFailureException(OptimisticLockingFailureException ex, ServerHttpRequest request){
+        return MODIFIED.response(request);
     }
 }
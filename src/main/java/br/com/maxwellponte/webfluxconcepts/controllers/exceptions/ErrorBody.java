@@ -0,0 +1,132 @@
+package br.com.maxwellponte.webfluxconcepts.controllers.exceptions;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+public final class ErrorBody {
+
+    private static final byte[] TIMESTAMP = ascii("{\"timestamp\":\"");
+    private static final byte[] PATH = ascii("\",\"path\":\"");
+    private static final byte[] END = ascii("\"}");
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static volatile Timestamp clock = new Timestamp(Long.MIN_VALUE, new byte[0]);
+
+    private final HttpStatus status;
+    private final byte[] head;
+    private final byte[] message;
+
+    private ErrorBody(HttpStatus status, String message) {
+        this.status = status;
+        this.head = ascii("\",\"status\":" + status.value() + ",\"error\":\"" + status.getReasonPhrase() + "\",\"message\":\"");
+        this.message = message == null ? null : JsonStringEncoder.getInstance().quoteAsUTF8(message);
+    }
+
+    public static ErrorBody of(final HttpStatus status) {
+        return new ErrorBody(status, null);
+    }
+
+    public static ErrorBody of(final HttpStatus status, final String message) {
+        return new ErrorBody(status, message);
+    }
+
+    public ResponseEntity<byte[]> response(final ServerHttpRequest request) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(render(request.getPath().value()));
+    }
+
+    public ResponseEntity<byte[]> response(final ServerHttpRequest request, final String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(render(request.getPath().value(), message));
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+
+    public byte[] render(final String path) {
+        return render(path, null, message);
+    }
+
+    public byte[] render(final String path, final String message) {
+        return render(path, message, null);
+    }
+
+    private byte[] render(String path, String text, byte[] encoded) {
+        byte[] timestamp = timestamp();
+        byte[] pathBytes = isPlainAscii(path) ? null : JsonStringEncoder.getInstance().quoteAsUTF8(path);
+        byte[] textBytes = text == null || isPlainAscii(text) ? null : JsonStringEncoder.getInstance().quoteAsUTF8(text);
+        int pathLength = pathBytes == null ? path.length() : pathBytes.length;
+        int messageLength = encoded != null ? encoded.length
+                : textBytes != null ? textBytes.length
+                : text != null ? text.length() : 0;
+
+        byte[] body = new byte[TIMESTAMP.length + timestamp.length + PATH.length + pathLength
+                + head.length + messageLength + END.length];
+        int position = put(body, 0, TIMESTAMP);
+        position = put(body, position, timestamp);
+        position = put(body, position, PATH);
+        position = pathBytes == null ? putAscii(body, position, path) : put(body, position, pathBytes);
+        position = put(body, position, head);
+        if (encoded != null) {
+            position = put(body, position, encoded);
+        } else if (textBytes != null) {
+            position = put(body, position, textBytes);
+        } else if (text != null) {
+            position = putAscii(body, position, text);
+        }
+        put(body, position, END);
+        return body;
+    }
+
+    private static byte[] timestamp() {
+        long now = System.currentTimeMillis();
+        Timestamp current = clock;
+        if (current.millis() != now) {
+            current = new Timestamp(now, ascii(DateTimeFormatter.ISO_LOCAL_DATE_TIME
+                    .format(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZONE))));
+            clock = current;
+        }
+        return current.formatted();
+    }
+
+    private static boolean isPlainAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c > 0x7e || c == '"' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int put(byte[] target, int position, byte[] source) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+
+    private static int putAscii(byte[] target, int position, String source) {
+        for (int i = 0; i < source.length(); i++) {
+            target[position++] = (byte) source.charAt(i);
+        }
+        return position;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record Timestamp(long millis, byte[] formatted) {
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.maxwellponte.webfluxconcepts.controllers.filters;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AdmissionControl {
+
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final Duration queueTimeout;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    AdmissionControl(final UserProperties.Admission config) {
+        this.maxInFlight = config.getMaxInFlight();
+        this.maxQueued = config.getMaxQueued();
+        this.queueTimeout = config.getQueueTimeout();
+    }
+
+    Mono<Boolean> acquire() {
+        return Mono.defer(() -> {
+            if (tryAcquire()) {
+                return Mono.just(true);
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                return Mono.just(false);
+            }
+
+            Waiter waiter = new Waiter();
+            waiters.offer(waiter);
+            drain();
+            return waiter.granted.asMono()
+                    .thenReturn(true)
+                    .timeout(queueTimeout, Mono.fromSupplier(() -> !abandon(waiter)))
+                    .doOnCancel(() -> {
+                        if (!abandon(waiter)) {
+                            release();
+                        }
+                    });
+        });
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty() && tryAcquire()) {
+            Waiter waiter = waiters.poll();
+            if (waiter == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            if (waiter.state.compareAndSet(Waiter.WAITING, Waiter.GRANTED)) {
+                queued.decrementAndGet();
+                waiter.granted.tryEmitEmpty();
+            } else {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private boolean abandon(Waiter waiter) {
+        if (waiter.state.compareAndSet(Waiter.WAITING, Waiter.ABANDONED)) {
+            queued.decrementAndGet();
+            waiters.remove(waiter);
+            return true;
+        }
+        return false;
+    }
+
+    private static final class Waiter {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int ABANDONED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private final Sinks.Empty<Void> granted = Sinks.empty();
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.maxwellponte.webfluxconcepts.controllers.filters;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class ClientRateLimiter {
+
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final Cache<String, AtomicLong> arrivals;
+
+    ClientRateLimiter(final UserProperties.RateLimit config) {
+        this.emissionInterval = Math.max(1L, 1_000_000_000L / config.getPermitsPerSecond());
+        this.burstTolerance = emissionInterval * (config.getBurst() - 1L);
+        this.arrivals = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumClients())
+                .expireAfterAccess(config.getIdleTimeout())
+                .build();
+    }
+
+    long tryAcquire(final String client, final long now) {
+        AtomicLong arrival = arrivals.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long theoretical = arrival.get();
+            long allowedAt = theoretical - burstTolerance;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (arrival.compareAndSet(theoretical, Math.max(theoretical, now) + emissionInterval)) {
+                return 0L;
+            }
+        }
+    }
+}
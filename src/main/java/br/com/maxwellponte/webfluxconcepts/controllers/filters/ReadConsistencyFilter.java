@@ -0,0 +1,34 @@
+package br.com.maxwellponte.webfluxconcepts.controllers.filters;
+
+import br.com.maxwellponte.webfluxconcepts.repositories.ReadConsistency;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+@Component
+@ConditionalOnProperty(prefix = "users.read-routing", name = {"secondary-reads", "read-your-writes"}, havingValue = "true")
+public class ReadConsistencyFilter implements WebFilter {
+
+    private static final String USERS_PATH = "/users";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith(USERS_PATH)) {
+            return chain.filter(exchange);
+        }
+
+        ReadConsistency consistency = ReadConsistency.from(exchange.getRequest().getHeaders().getFirst(ReadConsistency.HEADER));
+        exchange.getResponse().beforeCommit(() -> {
+            String token = consistency.token();
+            if (token != null) {
+                exchange.getResponse().getHeaders().set(ReadConsistency.HEADER, token);
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .contextWrite(context -> ReadConsistency.with(context, consistency));
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.maxwellponte.webfluxconcepts.controllers.filters;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.controllers.exceptions.ErrorBody;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantIndexes;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "users.tenancy", name = "enabled", havingValue = "true")
+public class TenantFilter implements WebFilter {
+
+    private static final String USERS_PATH = "/users";
+    private static final ErrorBody MISSING = ErrorBody.of(BAD_REQUEST, "Tenant header is required");
+    private static final ErrorBody UNKNOWN = ErrorBody.of(BAD_REQUEST, "Unknown tenant");
+    private static final ErrorBody OVERLOADED = ErrorBody.of(SERVICE_UNAVAILABLE, "Tenant is at capacity, try again later");
+
+    private final UserProperties.Tenancy tenancy;
+    private final TenantRegistry tenants;
+    private final TenantIndexes indexes;
+    private final MeterRegistry registry;
+    private final Map<String, AdmissionControl> controls = new ConcurrentHashMap<>();
+
+    public TenantFilter(final UserProperties properties, final TenantRegistry tenants, final TenantIndexes indexes,
+                        final MeterRegistry registry) {
+        this.tenancy = properties.getTenancy();
+        this.tenants = tenants;
+        this.indexes = indexes;
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith(USERS_PATH)) {
+            return chain.filter(exchange);
+        }
+
+        String header = exchange.getRequest().getHeaders().getFirst(tenancy.getHeader());
+        if ((header == null || header.isBlank()) && tenancy.isRequired()) {
+            return UserAdmissionFilter.reject(exchange, MISSING, null);
+        }
+        String tenant = header == null || header.isBlank() ? TenantContext.DEFAULT : header.trim();
+        if (!tenants.contains(tenant)) {
+            return UserAdmissionFilter.reject(exchange, UNKNOWN, null);
+        }
+
+        Mono<Void> handled = indexes.ensure(tenant).then(Mono.defer(() -> chain.filter(exchange)));
+        if (!tenancy.getAdmission().isEnabled()) {
+            return handled.contextWrite(context -> TenantContext.with(context, tenant));
+        }
+        AdmissionControl control = controls.computeIfAbsent(tenant, this::control);
+        return control.acquire()
+                .flatMap(granted -> granted
+                        ? handled.doFinally(signal -> control.release())
+                        : rejected(exchange, tenant))
+                .contextWrite(context -> TenantContext.with(context, tenant));
+    }
+
+    private Mono<Void> rejected(ServerWebExchange exchange, String tenant) {
+        registry.counter("users.tenant.rejected", "tenant", tenant).increment();
+        return UserAdmissionFilter.reject(exchange, OVERLOADED, tenancy.getAdmission().getRetryAfter());
+    }
+
+    private AdmissionControl control(String tenant) {
+        AdmissionControl control = new AdmissionControl(tenancy.getAdmission());
+        Gauge.builder("users.tenant.in_flight", control, AdmissionControl::inFlight)
+                .tag("tenant", tenant)
+                .register(registry);
+        Gauge.builder("users.tenant.queued", control, AdmissionControl::queued)
+                .tag("tenant", tenant)
+                .register(registry);
+        return control;
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.maxwellponte.webfluxconcepts.controllers.filters;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.controllers.exceptions.ErrorBody;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class UserAdmissionFilter implements WebFilter {
+
+    private static final String USERS_PATH = "/users";
+    private static final ErrorBody RATE_LIMITED = ErrorBody.of(TOO_MANY_REQUESTS, "Rate limit exceeded, slow down");
+    private static final ErrorBody OVERLOADED = ErrorBody.of(SERVICE_UNAVAILABLE, "Server is at capacity, try again later");
+
+    private final UserProperties.RateLimit rateLimit;
+    private final UserProperties.Admission admission;
+    private final UserProperties.Admission streamAdmission;
+    private final ClientRateLimiter limiter;
+    private final AdmissionControl control;
+    private final AdmissionControl streamControl;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+
+    public UserAdmissionFilter(final UserProperties properties, final MeterRegistry registry) {
+        this.rateLimit = properties.getRateLimit();
+        this.admission = properties.getAdmission();
+        this.streamAdmission = properties.getStreamAdmission();
+        this.limiter = new ClientRateLimiter(rateLimit);
+        this.control = new AdmissionControl(admission);
+        this.streamControl = new AdmissionControl(streamAdmission);
+        this.rateLimited = Counter.builder("users.admission.rejected")
+                .tag("reason", "rate_limited")
+                .register(registry);
+        this.overloaded = Counter.builder("users.admission.rejected")
+                .tag("reason", "overloaded")
+                .register(registry);
+
+        if (rateLimit.isEnabled()) {
+            log.info("Rate limiting users per client address, behind a proxy set server.forward-headers-strategy "
+                    + "and have the proxy overwrite X-Forwarded-For or every client shares one bucket");
+        }
+
+        Gauge.builder("users.admission.in_flight", control, AdmissionControl::inFlight)
+                .register(registry);
+        Gauge.builder("users.admission.queued", control, AdmissionControl::queued)
+                .register(registry);
+        Gauge.builder("users.admission.streams.in_flight", streamControl, AdmissionControl::inFlight)
+                .register(registry);
+        Gauge.builder("users.admission.streams.queued", streamControl, AdmissionControl::queued)
+                .register(registry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith(USERS_PATH)) {
+            return chain.filter(exchange);
+        }
+
+        if (!rateLimit.isEnabled()) {
+            return admit(exchange, chain);
+        }
+        return clientKey(exchange)
+                .flatMap(key -> {
+                    long wait = limiter.tryAcquire(key, System.nanoTime());
+                    if (wait > 0) {
+                        rateLimited.increment();
+                        return reject(exchange, RATE_LIMITED, Duration.ofNanos(wait));
+                    }
+                    return admit(exchange, chain);
+                });
+    }
+
+    private Mono<Void> admit(ServerWebExchange exchange, WebFilterChain chain) {
+        boolean streaming = isStreaming(exchange.getRequest());
+        UserProperties.Admission config = streaming ? streamAdmission : admission;
+        if (!config.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        AdmissionControl admitted = streaming ? streamControl : control;
+        return admitted.acquire()
+                .flatMap(granted -> {
+                    if (!granted) {
+                        overloaded.increment();
+                        return reject(exchange, OVERLOADED, config.getRetryAfter());
+                    }
+                    return chain.filter(exchange)
+                            .doFinally(signal -> admitted.release());
+                });
+    }
+
+    private static boolean isStreaming(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(headers.getContentType())
+                || headers.getAccept().stream().anyMatch(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)
+                        || type.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM));
+    }
+
+    private Mono<String> clientKey(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .map(principal -> "principal:" + principal.getName())
+                .defaultIfEmpty("address:" + remoteAddress(exchange.getRequest()));
+    }
+
+    private static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        return address == null ? "unknown" : address.getHostString();
+    }
+
+    static Mono<Void> reject(ServerWebExchange exchange, ErrorBody error, Duration retryAfter) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(error.status());
+        if (retryAfter != null) {
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, (retryAfter.toMillis() + 999) / 1000)));
+        }
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory()
+                .wrap(error.render(exchange.getRequest().getPath().value()))));
+    }
+}
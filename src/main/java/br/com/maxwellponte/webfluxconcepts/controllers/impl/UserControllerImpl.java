@@ -1,13 +1,21 @@
 package br.com.maxwellponte.webfluxconcepts.controllers.impl;
 
 import br.com.maxwellponte.webfluxconcepts.controllers.UserController;
-import br.com.maxwellponte.webfluxconcepts.mappers.UserMapper;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserBatchGetRequest;
 import br.com.maxwellponte.webfluxconcepts.models.requests.UserRequest;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserSearchRequest;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserBatchGetResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserCountResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserImportResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserPageResponse;
 import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.services.UserImportService;
 import br.com.maxwellponte.webfluxconcepts.services.UserService;
+import br.com.maxwellponte.webfluxconcepts.services.UserWriteBehind;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
@@ -19,7 +27,7 @@ import reactor.core.publisher.Mono;
 public class UserControllerImpl implements UserController {
 
     private final UserService service;
-    private final UserMapper mapper;
+    private final UserImportService importService;
 
     @Override
     public ResponseEntity<Mono<Void>> save(final UserRequest request) {
@@ -28,21 +36,60 @@ public class UserControllerImpl implements UserController {
     }
 
     @Override
-    public ResponseEntity<Mono<UserResponse>> findById(String id) {
+    public ResponseEntity<Flux<UserImportResponse>> saveAll(final Flux<UserRequest> requests) {
         return ResponseEntity.status(HttpStatus.OK)
-                .body(service.findById(id).map(mapper::toResponse));
+                .body(importService.importAll(requests));
     }
 
     @Override
-    public ResponseEntity<Flux<UserResponse>> findAll() {
+    public ResponseEntity<Flux<UserBatchGetResponse>> findAllById(final UserBatchGetRequest request) {
         return ResponseEntity.status(HttpStatus.OK)
-                .body(service.findAll().map(mapper::toResponse));
+                .body(service.findAllById(request.ids()));
     }
 
     @Override
-    public ResponseEntity<Mono<UserResponse>> update(String id, UserRequest request) {
-        return  ResponseEntity.status(HttpStatus.OK)
-                .body(service.update(id, request).map(mapper::toResponse));
+    public ResponseEntity<Flux<UserResponse>> export(String after) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(service.export(after));
+    }
+
+    @Override
+    public Flux<ServerSentEvent<UserResponse>> exportEvents(String lastEventId, String after) {
+        return service.export(lastEventId != null ? lastEventId : after)
+                .map(user -> ServerSentEvent.builder(user)
+                        .id(UserService.encodeCursor(user.id()))
+                        .event("user")
+                        .build());
+    }
+
+    @Override
+    public ResponseEntity<Mono<UserCountResponse>> count(UserSearchRequest search, boolean exact) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(service.count(search, exact));
+    }
+
+    @Override
+    public Mono<ResponseEntity<UserResponse>> findById(String id) {
+        return service.findResponseById(id)
+                .map(this::withETag);
+    }
+
+    @Override
+    public ResponseEntity<Mono<UserPageResponse>> findAll(UserSearchRequest search, String after, Integer limit) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(service.findPage(search, after, limit));
+    }
+
+    @Override
+    public ResponseEntity<Flux<UserResponse>> stream(UserSearchRequest search, String after) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(service.stream(search, after));
+    }
+
+    @Override
+    public Mono<ResponseEntity<UserResponse>> update(String id, String ifMatch, UserRequest request) {
+        return service.update(id, request, ifMatch)
+                .map(user -> user == UserWriteBehind.ACCEPTED ? ResponseEntity.accepted().<UserResponse>build() : withETag(user));
     }
 
     @Override
@@ -50,4 +97,12 @@ public class UserControllerImpl implements UserController {
         return ResponseEntity.status(HttpStatus.OK)
                 .body(service.delete(id).then());
     }
+
+    private ResponseEntity<UserResponse> withETag(UserResponse user) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.OK);
+        if (user.version() != null) {
+            builder.eTag(String.valueOf(user.version()));
+        }
+        return builder.body(user);
+    }
 }
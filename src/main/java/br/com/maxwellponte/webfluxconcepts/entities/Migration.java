@@ -0,0 +1,19 @@
+package br.com.maxwellponte.webfluxconcepts.entities;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@Document(collection = "migrations")
+public class Migration {
+
+    @Id
+    private String id;
+    private Instant completedAt;
+
+}
@@ -0,0 +1,20 @@
+package br.com.maxwellponte.webfluxconcepts.entities;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@Document(collection = "resume_tokens")
+public class ResumeToken {
+
+    @Id
+    private String id;
+    private String token;
+    private Instant updatedAt;
+
+}
@@ -3,19 +3,34 @@ package br.com.maxwellponte.webfluxconcepts.entities;
 import lombok.Builder;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.query.Collation;
+
+import java.time.Instant;
 
 @Data
 @Builder
 @Document
+@CompoundIndex(name = "name_ci_id_live", def = "{'name': 1, '_id': 1}", collation = "{'locale': 'en', 'strength': 2}",
+        partialFilter = "{'deleted': false}")
 public class User {
 
+    public static final String EMAIL_INDEX = "email_live";
+    public static final Collation NAME_COLLATION = Collation.of("en").strength(Collation.ComparisonLevel.secondary());
+
     @Id
     private String id;
     private String name;
-    @Indexed(unique = true)
     private String email;
     private String password;
+    @Version
+    private Long version;
+    @Builder.Default
+    private Boolean deleted = false;
+    @Indexed(name = "deleted_ttl", expireAfter = "#{@environment.getProperty('users.soft-delete.retention', '1d')}")
+    private Instant deletedAt;
 
 }
@@ -0,0 +1,48 @@
+package br.com.maxwellponte.webfluxconcepts.entities;
+
+import lombok.Builder;
+import lombok.Data;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@Document(collection = "user_outbox")
+@CompoundIndex(name = "pending", def = "{'publishedAt': 1, '_id': 1}")
+public class UserEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    @Id
+    private String id;
+    private Type type;
+    private String userId;
+    private Long version;
+    private String name;
+    private String email;
+    private Instant occurredAt;
+    private String leaseOwner;
+    private Instant leaseUntil;
+    @Indexed(name = "published_ttl", expireAfter = "7d")
+    private Instant publishedAt;
+    @Transient
+    private String tenant;
+
+    public static UserEvent of(final Type type, final String userId, final Long version, final String name, final String email) {
+        return UserEvent.builder()
+                .id(new ObjectId().toHexString())
+                .type(type)
+                .userId(userId)
+                .version(version)
+                .name(name)
+                .email(email)
+                .occurredAt(Instant.now())
+                .build();
+    }
+}
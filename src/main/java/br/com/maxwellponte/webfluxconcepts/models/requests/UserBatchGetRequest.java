@@ -0,0 +1,10 @@
+package br.com.maxwellponte.webfluxconcepts.models.requests;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record UserBatchGetRequest (
+        @NotEmpty(message = "must not be null or empty")
+        List<String> ids
+) { }
@@ -0,0 +1,10 @@
+package br.com.maxwellponte.webfluxconcepts.models.requests;
+
+public record UserCursor (
+        String id,
+        String name
+) {
+    public static UserCursor of(String id) {
+        return new UserCursor(id, null);
+    }
+}
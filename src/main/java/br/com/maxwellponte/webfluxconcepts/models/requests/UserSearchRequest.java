@@ -0,0 +1,16 @@
+package br.com.maxwellponte.webfluxconcepts.models.requests;
+
+import static org.springframework.util.StringUtils.hasText;
+
+public record UserSearchRequest (
+        String email,
+        String emailPrefix,
+        String name,
+        String nameContains
+) {
+    public static final UserSearchRequest ALL = new UserSearchRequest(null, null, null, null);
+
+    public boolean isFiltered() {
+        return hasText(email) || hasText(emailPrefix) || hasText(name) || hasText(nameContains);
+    }
+}
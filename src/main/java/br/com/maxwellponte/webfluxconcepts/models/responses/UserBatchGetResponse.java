@@ -0,0 +1,7 @@
+package br.com.maxwellponte.webfluxconcepts.models.responses;
+
+public record UserBatchGetResponse (
+        String id,
+        Integer status,
+        UserResponse user
+){ }
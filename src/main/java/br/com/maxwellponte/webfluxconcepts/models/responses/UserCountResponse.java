@@ -0,0 +1,6 @@
+package br.com.maxwellponte.webfluxconcepts.models.responses;
+
+public record UserCountResponse (
+        long count,
+        boolean exact
+){ }
@@ -0,0 +1,8 @@
+package br.com.maxwellponte.webfluxconcepts.models.responses;
+
+public record UserImportResponse (
+        long index,
+        Integer status,
+        String id,
+        String message
+){ }
@@ -0,0 +1,8 @@
+package br.com.maxwellponte.webfluxconcepts.models.responses;
+
+import java.util.List;
+
+public record UserPageResponse (
+        List<UserResponse> content,
+        String next
+){ }
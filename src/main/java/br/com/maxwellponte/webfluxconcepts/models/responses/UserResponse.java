@@ -1,7 +1,14 @@
 package br.com.maxwellponte.webfluxconcepts.models.responses;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public record UserResponse (
         String id,
         String name,
-        String email
-){ }
+        String email,
+        @JsonIgnore Long version
+){
+    public UserResponse(String id, String name, String email) {
+        this(id, name, email, null);
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+
+public final class DuplicateKeys {
+
+    public static final String EMAIL_MESSAGE = "Email already registered";
+    public static final String KEY_MESSAGE = "Dup key exception";
+
+    private static final String EMAIL_INDEX = "index: " + User.EMAIL_INDEX + " dup key";
+
+    private DuplicateKeys() {
+    }
+
+    public static boolean isEmail(final String message) {
+        return message != null && message.contains(EMAIL_INDEX);
+    }
+
+    public static String describe(final String message) {
+        return isEmail(message) ? EMAIL_MESSAGE : KEY_MESSAGE;
+    }
+}
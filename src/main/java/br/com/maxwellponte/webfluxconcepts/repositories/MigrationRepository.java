@@ -0,0 +1,26 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.entities.Migration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+@RequiredArgsConstructor
+public class MigrationRepository {
+
+    @Autowired
+    private final ReactiveMongoTemplate template;
+
+    public Mono<Migration> save(final Migration migration) {
+        return template.save(migration);
+    }
+
+    public Mono<Boolean> isCompleted(String id) {
+        return template.exists(new Query(Criteria.where("id").is(id)), Migration.class);
+    }
+}
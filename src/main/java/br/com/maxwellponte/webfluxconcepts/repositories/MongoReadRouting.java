@@ -0,0 +1,167 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.MongoException;
+import com.mongodb.ReadPreference;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Component
+public class MongoReadRouting {
+
+    private static final ClientSessionOptions CAUSAL = ClientSessionOptions.builder()
+            .causallyConsistent(true)
+            .build();
+    private static final int TRANSACTION_RETRIES = 3;
+
+    private final ReactiveMongoTemplate primary;
+    private final ReactiveMongoTemplate secondary;
+    private final boolean routed;
+    private final boolean readYourWrites;
+
+    public MongoReadRouting(final ReactiveMongoTemplate template, final UserProperties properties, final ApplicationContext context) {
+        UserProperties.ReadRouting config = properties.getReadRouting();
+        this.primary = template;
+        this.routed = config.isSecondaryReads();
+        this.readYourWrites = routed && config.isReadYourWrites();
+
+        if (routed) {
+            ReadPreference preference = ReadPreference.secondaryPreferred(config.getMaxStaleness().toSeconds(), TimeUnit.SECONDS);
+            this.secondary = new ReactiveMongoTemplate(new ReadPreferenceDatabaseFactory(template.getMongoDatabaseFactory(), preference),
+                    template.getConverter());
+            this.secondary.setApplicationContext(context);
+        } else {
+            this.secondary = template;
+        }
+    }
+
+    public <T> Mono<T> readOne(final Function<ReactiveMongoOperations, Mono<T>> operation) {
+        if (!readYourWrites) {
+            return operation.apply(secondary);
+        }
+        return ReadConsistency.current()
+                .filter(ReadConsistency::isPresent)
+                .map(consistency -> Mono.usingWhen(session(), session -> {
+                    consistency.apply(session);
+                    return operation.apply(secondary.withSession(session));
+                }, MongoReadRouting::close))
+                .defaultIfEmpty(Mono.defer(() -> operation.apply(secondary)))
+                .flatMap(Function.identity());
+    }
+
+    public <T> Flux<T> readMany(final Function<ReactiveMongoOperations, Flux<T>> operation) {
+        if (!readYourWrites) {
+            return operation.apply(secondary);
+        }
+        return ReadConsistency.current()
+                .filter(ReadConsistency::isPresent)
+                .map(consistency -> Flux.usingWhen(session(), session -> {
+                    consistency.apply(session);
+                    return operation.apply(secondary.withSession(session));
+                }, MongoReadRouting::close))
+                .defaultIfEmpty(Flux.defer(() -> operation.apply(secondary)))
+                .flatMapMany(Function.identity());
+    }
+
+    public <T> Mono<T> write(final Function<ReactiveMongoOperations, Mono<T>> operation) {
+        if (!readYourWrites) {
+            return operation.apply(primary);
+        }
+        return ReadConsistency.current()
+                .map(consistency -> Mono.usingWhen(session(), session -> operation.apply(primary.withSession(session))
+                        .doOnSuccess(result -> consistency.advance(session)), MongoReadRouting::close))
+                .defaultIfEmpty(Mono.defer(() -> operation.apply(primary)))
+                .flatMap(Function.identity());
+    }
+
+    public <T> Mono<T> inTransaction(final Function<ReactiveMongoOperations, Mono<T>> operation) {
+        return ReadConsistency.current()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(consistency -> Mono.usingWhen(session(), session -> {
+                    session.startTransaction();
+                    return operation.apply(primary.withSession(session))
+                            .flatMap(result -> Mono.from(session.commitTransaction()).thenReturn(result))
+                            .switchIfEmpty(Mono.defer(() -> Mono.from(session.commitTransaction()).then(Mono.empty())))
+                            .onErrorResume(ex -> abort(session).then(Mono.error(ex)))
+                            .doOnSuccess(result -> consistency.ifPresent(value -> value.advance(session)));
+                }, MongoReadRouting::close))
+                .retryWhen(Retry.max(TRANSACTION_RETRIES).filter(MongoReadRouting::isTransientTransactionError));
+    }
+
+    private Mono<ClientSession> session() {
+        return primary.getMongoDatabaseFactory().getSession(CAUSAL);
+    }
+
+    private static Mono<Void> abort(ClientSession session) {
+        if (!session.hasActiveTransaction()) {
+            return Mono.empty();
+        }
+        return Mono.from(session.abortTransaction()).onErrorResume(ex -> Mono.empty());
+    }
+
+    private static boolean isTransientTransactionError(Throwable ex) {
+        return NestedExceptionUtils.getMostSpecificCause(ex) instanceof MongoException mongo
+                && mongo.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+    }
+
+    private static Mono<Void> close(ClientSession session) {
+        return Mono.fromRunnable(session::close);
+    }
+
+    private record ReadPreferenceDatabaseFactory(ReactiveMongoDatabaseFactory delegate, ReadPreference preference)
+            implements ReactiveMongoDatabaseFactory {
+
+        @Override
+        public Mono<MongoDatabase> getMongoDatabase() throws DataAccessException {
+            return delegate.getMongoDatabase().map(database -> database.withReadPreference(preference));
+        }
+
+        @Override
+        public Mono<MongoDatabase> getMongoDatabase(String dbName) throws DataAccessException {
+            return delegate.getMongoDatabase(dbName).map(database -> database.withReadPreference(preference));
+        }
+
+        @Override
+        public PersistenceExceptionTranslator getExceptionTranslator() {
+            return delegate.getExceptionTranslator();
+        }
+
+        @Override
+        public CodecRegistry getCodecRegistry() {
+            return delegate.getCodecRegistry();
+        }
+
+        @Override
+        public Mono<ClientSession> getSession(ClientSessionOptions options) {
+            return delegate.getSession(options);
+        }
+
+        @Override
+        public ReactiveMongoDatabaseFactory withSession(ClientSession session) {
+            return new ReadPreferenceDatabaseFactory(delegate.withSession(session), preference);
+        }
+
+        @Override
+        public boolean isTransactionActive() {
+            return delegate.isTransactionActive();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ServiceUnavailableException;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoNodeIsRecoveringException;
+import com.mongodb.MongoNotPrimaryException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class MongoResilience {
+
+    static final String UNAVAILABLE = "Database is temporarily unavailable";
+
+    private static final ServiceUnavailableException UNAVAILABLE_ERROR = new ServiceUnavailableException(UNAVAILABLE);
+
+    private final UserProperties.Resilience config;
+    private final MeterRegistry registry;
+    private final CircuitBreaker breaker;
+    private final Counter rejected;
+    private final Map<String, RetryBackoffSpec> retries = new ConcurrentHashMap<>();
+
+    public MongoResilience(final UserProperties properties, final MeterRegistry registry) {
+        this.config = properties.getResilience();
+        this.registry = registry;
+        this.breaker = new CircuitBreaker(config.getFailureThreshold(), config.getOpenDuration(), System::nanoTime);
+        this.rejected = Counter.builder("users.repository.circuit.rejected").register(registry);
+        Gauge.builder("users.repository.circuit.state", breaker, circuit -> circuit.state().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(registry);
+    }
+
+    public <T> Mono<T> read(final String operation, final Mono<T> source) {
+        return guard(source, config.getReadTimeout())
+                .retryWhen(retry(operation))
+                .onErrorMap(MongoResilience::isTransient, MongoResilience::unavailable);
+    }
+
+    public <T> Flux<T> read(final String operation, final Flux<T> source) {
+        return Flux.defer(() -> {
+            AtomicBoolean emitted = new AtomicBoolean();
+            return guard(source, config.getReadTimeout())
+                    .doOnNext(value -> emitted.lazySet(true))
+                    .retryWhen(retry(operation).filter(ex -> !emitted.get() && isTransient(ex)));
+        }).onErrorMap(MongoResilience::isTransient, MongoResilience::unavailable);
+    }
+
+    public <T> Mono<T> write(final Mono<T> source) {
+        return guard(source, config.getWriteTimeout())
+                .onErrorMap(MongoResilience::isTransient, MongoResilience::unavailable);
+    }
+
+    CircuitBreaker.State state() {
+        return breaker.state();
+    }
+
+    private <T> Mono<T> guard(Mono<T> source, Duration timeout) {
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquire()) {
+                rejected.increment();
+                return Mono.error(UNAVAILABLE_ERROR);
+            }
+            return source.timeout(timeout)
+                    .doOnSuccess(value -> breaker.onSuccess())
+                    .doOnError(this::record)
+                    .doOnCancel(breaker::onCancel);
+        });
+    }
+
+    private <T> Flux<T> guard(Flux<T> source, Duration timeout) {
+        return Flux.defer(() -> {
+            if (!breaker.tryAcquire()) {
+                rejected.increment();
+                return Flux.error(UNAVAILABLE_ERROR);
+            }
+            AtomicBoolean answered = new AtomicBoolean();
+            return source.timeout(Mono.delay(timeout), value -> Mono.never())
+                    .doOnNext(value -> {
+                        if (answered.compareAndSet(false, true)) {
+                            breaker.onSuccess();
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (answered.compareAndSet(false, true)) {
+                            breaker.onSuccess();
+                        }
+                    })
+                    .doOnError(this::record)
+                    .doOnCancel(() -> {
+                        if (!answered.get()) {
+                            breaker.onCancel();
+                        }
+                    });
+        });
+    }
+
+    private void record(Throwable ex) {
+        if (isTransient(ex)) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    private RetryBackoffSpec retry(String operation) {
+        return retries.computeIfAbsent(operation, this::backoff);
+    }
+
+    private RetryBackoffSpec backoff(String operation) {
+        Counter retries = Counter.builder("users.repository.retries")
+                .tag("operation", operation)
+                .register(registry);
+        return Retry.backoff(config.getReadRetries(), config.getMinBackoff())
+                .maxBackoff(config.getMaxBackoff())
+                .jitter(config.getJitter())
+                .filter(MongoResilience::isTransient)
+                .doBeforeRetry(signal -> retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    static boolean isTransient(Throwable ex) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(ex);
+        return ex instanceof TimeoutException
+                || ex instanceof DataAccessResourceFailureException
+                || ex instanceof QueryTimeoutException
+                || ex instanceof TransientDataAccessResourceException
+                || cause instanceof MongoSocketException
+                || cause instanceof MongoTimeoutException
+                || cause instanceof MongoExecutionTimeoutException
+                || cause instanceof MongoNotPrimaryException
+                || cause instanceof MongoNodeIsRecoveringException;
+    }
+
+    private static Throwable unavailable(Throwable ex) {
+        return UNAVAILABLE_ERROR;
+    }
+}
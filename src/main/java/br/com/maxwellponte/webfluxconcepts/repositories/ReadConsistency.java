@@ -0,0 +1,96 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import com.mongodb.reactivestreams.client.ClientSession;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.json.JsonParseException;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public final class ReadConsistency {
+
+    public static final String HEADER = "X-Read-After";
+
+    private static final String OPERATION_TIME = "operationTime";
+    private static final String CLUSTER_TIME = "clusterTime";
+
+    private BsonTimestamp operationTime;
+    private BsonDocument clusterTime;
+
+    private ReadConsistency(BsonTimestamp operationTime, BsonDocument clusterTime) {
+        this.operationTime = operationTime;
+        this.clusterTime = clusterTime;
+    }
+
+    public static ReadConsistency from(final String token) {
+        if (token == null || token.isBlank()) {
+            return new ReadConsistency(null, null);
+        }
+        try {
+            BsonDocument document = BsonDocument.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            return new ReadConsistency(
+                    document.isTimestamp(OPERATION_TIME) ? document.getTimestamp(OPERATION_TIME) : null,
+                    document.isDocument(CLUSTER_TIME) && document.getDocument(CLUSTER_TIME).isTimestamp(CLUSTER_TIME)
+                            ? document.getDocument(CLUSTER_TIME) : null);
+        } catch (IllegalArgumentException | JsonParseException ex) {
+            return new ReadConsistency(null, null);
+        }
+    }
+
+    public static Context with(final Context context, final ReadConsistency consistency) {
+        return context.put(ReadConsistency.class, consistency);
+    }
+
+    public static boolean requested(final ContextView context) {
+        return context.<ReadConsistency>getOrEmpty(ReadConsistency.class)
+                .map(ReadConsistency::isPresent)
+                .orElse(false);
+    }
+
+    static Mono<ReadConsistency> current() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(context.<ReadConsistency>getOrEmpty(ReadConsistency.class)));
+    }
+
+    public synchronized String token() {
+        if (!isPresent()) {
+            return null;
+        }
+        BsonDocument document = new BsonDocument();
+        if (operationTime != null) {
+            document.put(OPERATION_TIME, operationTime);
+        }
+        if (clusterTime != null) {
+            document.put(CLUSTER_TIME, clusterTime);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(document.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    synchronized boolean isPresent() {
+        return operationTime != null || clusterTime != null;
+    }
+
+    synchronized void advance(ClientSession session) {
+        BsonTimestamp sessionOperationTime = session.getOperationTime();
+        if (sessionOperationTime != null && (operationTime == null || sessionOperationTime.compareTo(operationTime) > 0)) {
+            operationTime = sessionOperationTime;
+        }
+        BsonDocument sessionClusterTime = session.getClusterTime();
+        if (sessionClusterTime != null && (clusterTime == null
+                || sessionClusterTime.getTimestamp(CLUSTER_TIME).compareTo(clusterTime.getTimestamp(CLUSTER_TIME)) > 0)) {
+            clusterTime = sessionClusterTime;
+        }
+    }
+
+    synchronized void apply(ClientSession session) {
+        if (clusterTime != null) {
+            session.advanceClusterTime(clusterTime);
+        }
+        if (operationTime != null) {
+            session.advanceOperationTime(operationTime);
+        }
+    }
+}
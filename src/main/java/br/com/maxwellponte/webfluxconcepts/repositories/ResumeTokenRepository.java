@@ -0,0 +1,24 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.entities.ResumeToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+@RequiredArgsConstructor
+public class ResumeTokenRepository {
+
+    @Autowired
+    private final ReactiveMongoTemplate template;
+
+    public Mono<ResumeToken> save(final ResumeToken token) {
+        return template.save(token);
+    }
+
+    public Mono<ResumeToken> findById(String id) {
+        return template.findById(id, ResumeToken.class);
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.regex.Pattern;
+
+public final class TenantContext {
+
+    public static final String DEFAULT = "default";
+
+    private static final Pattern VALID = Pattern.compile("[a-z0-9][a-z0-9-]{0,31}");
+
+    private TenantContext() {
+    }
+
+    public static boolean isValid(final String tenant) {
+        return tenant != null && VALID.matcher(tenant).matches();
+    }
+
+    public static Context with(final Context context, final String tenant) {
+        return context.put(TenantContext.class, tenant);
+    }
+
+    public static String current(final ContextView context) {
+        return context.getOrDefault(TenantContext.class, DEFAULT);
+    }
+
+    public static boolean isDefault(final String tenant) {
+        return DEFAULT.equals(tenant);
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import reactor.core.publisher.Mono;
+
+public record TenantDatabaseFactory(ReactiveMongoDatabaseFactory delegate) implements ReactiveMongoDatabaseFactory {
+
+    @Override
+    public Mono<MongoDatabase> getMongoDatabase() throws DataAccessException {
+        return Mono.deferContextual(context -> {
+            String tenant = TenantContext.current(context);
+            return TenantContext.isDefault(tenant)
+                    ? delegate.getMongoDatabase()
+                    : delegate.getMongoDatabase().flatMap(base -> delegate.getMongoDatabase(database(base.getName(), tenant)));
+        });
+    }
+
+    @Override
+    public Mono<MongoDatabase> getMongoDatabase(String dbName) throws DataAccessException {
+        return delegate.getMongoDatabase(dbName);
+    }
+
+    @Override
+    public PersistenceExceptionTranslator getExceptionTranslator() {
+        return delegate.getExceptionTranslator();
+    }
+
+    @Override
+    public CodecRegistry getCodecRegistry() {
+        return delegate.getCodecRegistry();
+    }
+
+    @Override
+    public Mono<ClientSession> getSession(ClientSessionOptions options) {
+        return delegate.getSession(options);
+    }
+
+    @Override
+    public ReactiveMongoDatabaseFactory withSession(ClientSession session) {
+        return new TenantDatabaseFactory(delegate.withSession(session));
+    }
+
+    @Override
+    public boolean isTransactionActive() {
+        return delegate.isTransactionActive();
+    }
+
+    static String database(String base, String tenant) {
+        return base + "_" + tenant;
+    }
+}
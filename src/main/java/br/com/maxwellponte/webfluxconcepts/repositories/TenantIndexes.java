@@ -0,0 +1,55 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.entities.UserEvent;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class TenantIndexes {
+
+    private final ReactiveMongoTemplate template;
+    private final IndexResolver resolver;
+    private final Index emailIndex;
+    private final Map<String, Mono<Void>> ensured = new ConcurrentHashMap<>();
+
+    public TenantIndexes(final ReactiveMongoTemplate template, final UserProperties properties) {
+        this.template = template;
+        this.resolver = IndexResolver.create(template.getConverter().getMappingContext());
+        this.emailIndex = emailIndex(properties.getSharding().isEnabled());
+    }
+
+    public static Index emailIndex(final boolean sharded) {
+        Index index = new Index("email", Sort.Direction.ASC)
+                .named(User.EMAIL_INDEX)
+                .partial(PartialIndexFilter.of(Criteria.where("deleted").is(false)));
+        return sharded ? index : index.unique();
+    }
+
+    public Mono<Void> ensure(final String tenant) {
+        return ensured.computeIfAbsent(tenant, key -> create(key)
+                .doOnError(ex -> ensured.remove(key))
+                .cache());
+    }
+
+    private Mono<Void> create(String tenant) {
+        return Flux.just(User.class, UserEvent.class)
+                .filter(type -> !TenantContext.isDefault(tenant))
+                .concatMap(type -> Flux.fromIterable(resolver.resolveIndexFor(type))
+                        .concatMap(index -> template.indexOps(type).ensureIndex(index)))
+                .concatWith(template.indexOps(User.class).ensureIndex(emailIndex))
+                .then()
+                .contextWrite(context -> TenantContext.with(context, tenant));
+    }
+}
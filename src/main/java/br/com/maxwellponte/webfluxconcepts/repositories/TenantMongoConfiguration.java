@@ -0,0 +1,19 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "users.tenancy", name = "enabled", havingValue = "true")
+public class TenantMongoConfiguration {
+
+    @Bean
+    public ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory(final MongoClient client, final MongoProperties properties) {
+        return new TenantDatabaseFactory(new SimpleReactiveMongoDatabaseFactory(client, properties.getMongoClientDatabase()));
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import org.reactivestreams.Publisher;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+@Component
+public class TenantRegistry {
+
+    private final Set<String> tenants;
+
+    public TenantRegistry(final UserProperties properties) {
+        Set<String> tenants = new LinkedHashSet<>();
+        tenants.add(TenantContext.DEFAULT);
+        if (properties.getTenancy().isEnabled()) {
+            for (String tenant : properties.getTenancy().getTenants()) {
+                if (!TenantContext.isValid(tenant)) {
+                    throw new IllegalStateException("Invalid tenant " + tenant);
+                }
+                tenants.add(tenant);
+            }
+        }
+        this.tenants = Collections.unmodifiableSet(tenants);
+    }
+
+    public Set<String> tenants() {
+        return tenants;
+    }
+
+    public boolean contains(final String tenant) {
+        return tenants.contains(tenant);
+    }
+
+    public <T> Flux<T> forEach(final Function<String, Publisher<T>> work) {
+        return Flux.fromIterable(tenants)
+                .concatMap(tenant -> Flux.from(work.apply(tenant))
+                        .contextWrite(context -> TenantContext.with(context, tenant)));
+    }
+}
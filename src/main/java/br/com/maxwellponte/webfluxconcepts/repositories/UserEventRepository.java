@@ -0,0 +1,93 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.UserEvent;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+@Repository
+public class UserEventRepository {
+
+    private final ReactiveMongoTemplate template;
+    private final MongoReadRouting routing;
+    private final boolean enabled;
+
+    public UserEventRepository(final ReactiveMongoTemplate template, final MongoReadRouting routing, final UserProperties properties) {
+        this.template = template;
+        this.routing = routing;
+        this.enabled = properties.getOutbox().isEnabled();
+    }
+
+    public <T> Mono<T> write(final Function<ReactiveMongoOperations, Mono<T>> operation, final Function<T, UserEvent> event) {
+        if (!enabled) {
+            return routing.write(operation);
+        }
+        return routing.inTransaction(operations -> operation.apply(operations)
+                .flatMap(result -> operations.insert(event.apply(result)).thenReturn(result)));
+    }
+
+    public <T> Mono<T> writeAll(final Function<ReactiveMongoOperations, Mono<T>> operation, final Function<T, List<UserEvent>> events) {
+        if (!enabled) {
+            return routing.write(operation);
+        }
+        return routing.inTransaction(operations -> operation.apply(operations)
+                .flatMap(result -> {
+                    List<UserEvent> appended = events.apply(result);
+                    return appended.isEmpty()
+                            ? Mono.just(result)
+                            : operations.insertAll(Mono.just(appended), UserEvent.class).then(Mono.just(result));
+                }));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Flux<String> findPendingIds(Instant now, int limit) {
+        Query query = new Query(pending(now))
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(limit);
+        query.fields().include("id");
+
+        return template.find(query, UserEvent.class).map(UserEvent::getId);
+    }
+
+    public Mono<Long> lease(Collection<String> ids, String owner, Instant now, Instant until) {
+        Query query = new Query(new Criteria().andOperator(Criteria.where("id").in(ids), pending(now)));
+
+        return template.updateMulti(query, new Update().set("leaseOwner", owner).set("leaseUntil", until), UserEvent.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    public Flux<UserEvent> findLeased(Collection<String> ids, String owner) {
+        Query query = new Query(Criteria.where("id").in(ids).and("leaseOwner").is(owner).and("publishedAt").is(null))
+                .with(Sort.by(Sort.Direction.ASC, "id"));
+
+        return template.find(query, UserEvent.class);
+    }
+
+    public Mono<Long> markPublished(Collection<String> ids, Instant now) {
+        Query query = new Query(Criteria.where("id").in(ids));
+
+        return template.updateMulti(query, new Update().set("publishedAt", now).unset("leaseOwner").unset("leaseUntil"), UserEvent.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    private Criteria pending(Instant now) {
+        return Criteria.where("publishedAt").is(null)
+                .orOperator(Criteria.where("leaseUntil").is(null), Criteria.where("leaseUntil").lt(now));
+    }
+}
@@ -1,38 +1,323 @@
 package br.com.maxwellponte.webfluxconcepts.repositories;
 
+import br.com.maxwellponte.webfluxconcepts.config.UserMetrics;
 import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.entities.UserEvent;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserCursor;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserSearchRequest;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.WriteError;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.result.UpdateResult;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static br.com.maxwellponte.webfluxconcepts.config.UserMetrics.REPOSITORY;
+import static br.com.maxwellponte.webfluxconcepts.entities.UserEvent.Type.CREATED;
+import static br.com.maxwellponte.webfluxconcepts.entities.UserEvent.Type.DELETED;
+import static br.com.maxwellponte.webfluxconcepts.entities.UserEvent.Type.UPDATED;
+import static org.springframework.util.StringUtils.hasText;
+
 @Repository
 @RequiredArgsConstructor
 public class UserRepository {
 
+    private static final MongoExceptionTranslator EXCEPTIONS = new MongoExceptionTranslator();
+
     @Autowired
     private final ReactiveMongoTemplate template;
+    private final UserMetrics metrics;
+    private final MongoResilience resilience;
+    private final MongoReadRouting routing;
+    private final UserEventRepository events;
 
     public Mono<User> save(final User user) {
-        return template.save(user);
+        return metrics.timed(REPOSITORY, "save", resilience.write(events.write(ops -> ops.insert(user),
+                saved -> UserEvent.of(CREATED, saved.getId(), saved.getVersion(), saved.getName(), saved.getEmail()))));
+    }
+
+    public Mono<UserResponse> findResponseById(String id) {
+        Query query = responseFields(new Query(live(id)));
+
+        return metrics.timed(REPOSITORY, "findResponseById", resilience.read("findResponseById",
+                routing.readOne(ops -> ops.findOne(query, UserResponse.class, collectionName()))));
+    }
+
+    public Flux<UserResponse> findResponsesByIds(Collection<String> ids) {
+        Query query = responseFields(new Query(Criteria.where("id").in(ids).and("deleted").is(false)));
+
+        return metrics.timed(REPOSITORY, "findResponsesByIds", resilience.read("findResponsesByIds",
+                routing.readMany(ops -> ops.find(query, UserResponse.class, collectionName()))));
     }
 
-    public Mono<User> findById(String id) {
-        return template.findById(id, User.class);
+    public Flux<UserResponse> findPage(UserSearchRequest search, UserCursor after, int limit) {
+        Query query = responseFields(searchQuery(search, after).limit(limit));
+
+        return metrics.timed(REPOSITORY, "findPage", resilience.read("findPage",
+                routing.readMany(ops -> ops.find(query, UserResponse.class, collectionName()))));
     }
 
-    public Flux<User> findAll() {
-        return template.findAll(User.class);
+    public Flux<UserResponse> findAllAfter(UserSearchRequest search, UserCursor after, int batchSize) {
+        Query query = responseFields(searchQuery(search, after).cursorBatchSize(batchSize));
+
+        return metrics.timed(REPOSITORY, "findAllAfter", resilience.read("findAllAfter",
+                routing.readMany(ops -> ops.find(query, UserResponse.class, collectionName()))));
+    }
+
+    public Mono<Map<Integer, BulkWriteError>> insertUnordered(final List<User> users) {
+        List<Document> documents = users.stream().map(this::toDocument).toList();
+
+        return metrics.timed(REPOSITORY, "insertUnordered", insertUnordered(users, documents, Map.of()));
     }
 
     public Mono<User> findAndRemove(String id) {
-        Query query = new Query();
-        Criteria where = Criteria.where("id").is(id);
+        return metrics.timed(REPOSITORY, "findAndRemove", resilience.write(events.write(ops -> ops.findAndRemove(new Query(live(id)), User.class),
+                removed -> UserEvent.of(DELETED, removed.getId(), removed.getVersion(), removed.getName(), removed.getEmail()))));
+    }
+
+    public Mono<User> softDelete(String id) {
+        Update update = new Update().inc("version", 1).set("deleted", true).currentDate("deletedAt");
+
+        return metrics.timed(REPOSITORY, "softDelete", resilience.write(events.write(ops -> ops.findAndModify(responseFields(new Query(live(id))), update,
+                        FindAndModifyOptions.options().returnNew(true), User.class),
+                deleted -> UserEvent.of(DELETED, deleted.getId(), deleted.getVersion(), deleted.getName(), deleted.getEmail()))));
+    }
+
+    public Mono<UserResponse> findAndModify(String id, Long version, User changes) {
+        Update update = changes(changes);
+        Criteria where = live(id);
+        if (version != null) {
+            where.and("version").is(version);
+        }
+
+        return metrics.timed(REPOSITORY, "findAndModify", resilience.write(events.write(ops -> ops.findAndModify(responseFields(new Query(where)), update,
+                        FindAndModifyOptions.options().returnNew(true), UserResponse.class, collectionName()),
+                updated -> UserEvent.of(UPDATED, updated.id(), updated.version(), updated.name(), updated.email()))));
+    }
+
+    public Mono<BulkUpdate> updateAll(final Map<String, User> changes) {
+        MongoPersistentEntity<?> entity = template.getConverter().getMappingContext().getRequiredPersistentEntity(User.class);
+        QueryMapper queryMapper = new QueryMapper(template.getConverter());
+        UpdateMapper updateMapper = new UpdateMapper(template.getConverter());
+
+        List<Map.Entry<String, UpdateOneModel<Document>>> targets = changes.entrySet().stream()
+                .map(change -> Map.entry(change.getKey(), new UpdateOneModel<Document>(queryMapper.getMappedObject(live(change.getKey()).getCriteriaObject(), entity),
+                        updateMapper.getMappedObject(changes(change.getValue()).getUpdateObject(), entity))))
+                .toList();
+
+        return metrics.timed(REPOSITORY, "updateAll", Mono.defer(() -> updateAll(targets, Map.of())));
+    }
+
+    public Mono<Long> estimatedCount() {
+        return metrics.timed(REPOSITORY, "estimatedCount", resilience.read("estimatedCount", routing.readOne(ops -> ops.estimatedCount(User.class))));
+    }
+
+    public Mono<Long> count(UserSearchRequest search) {
+        return metrics.timed(REPOSITORY, "count", resilience.read("count", routing.readOne(ops -> ops.count(searchQuery(search, null), User.class))));
+    }
+
+    public Mono<Boolean> exists(String id) {
+        return metrics.timed(REPOSITORY, "exists", resilience.read("exists", template.exists(new Query(live(id)), User.class)));
+    }
+
+    public Mono<Long> backfillVersions() {
+        Query query = new Query(Criteria.where("version").exists(false));
+
+        return metrics.timed(REPOSITORY, "backfillVersions", template.updateMulti(query, new Update().set("version", 0L), User.class))
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    public Mono<Long> backfillDeleted() {
+        Query query = new Query(Criteria.where("deleted").exists(false));
 
-        return template.findAndRemove(query.addCriteria(where), User.class);
+        return metrics.timed(REPOSITORY, "backfillDeleted", template.updateMulti(query, new Update().set("deleted", false), User.class))
+                .map(UpdateResult::getModifiedCount);
     }
+
+    public Mono<Boolean> dropIndex(String name) {
+        return template.indexOps(User.class).getIndexInfo()
+                .any(index -> index.getName().equals(name))
+                .filter(Boolean::booleanValue)
+                .flatMap(present -> template.indexOps(User.class).dropIndex(name).thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Map<Integer, BulkWriteError>> insertUnordered(List<User> users, List<Document> documents, Map<Integer, BulkWriteError> failures) {
+        List<Integer> pending = IntStream.range(0, users.size()).filter(i -> !failures.containsKey(i)).boxed().toList();
+        if (pending.isEmpty()) {
+            return Mono.just(failures);
+        }
+
+        return resilience.write(events.writeAll(ops -> ops.getCollection(collectionName())
+                                .flatMap(collection -> Mono.from(collection.insertMany(pending.stream().map(documents::get).toList(),
+                                        new InsertManyOptions().ordered(false))))
+                                .then(Mono.fromSupplier(() -> pending.stream().map(i -> created(users.get(i), documents.get(i))).toList())),
+                        Function.identity()))
+                .thenReturn(failures)
+                .onErrorResume(MongoBulkWriteException.class, ex -> {
+                    Map<Integer, BulkWriteError> rejected = new HashMap<>(failures);
+                    ex.getWriteErrors().forEach(error -> rejected.put(pending.get(error.getIndex()), error));
+                    if (events.isEnabled()) {
+                        return insertUnordered(users, documents, rejected);
+                    }
+                    pending.stream().filter(i -> !rejected.containsKey(i)).forEach(i -> created(users.get(i), documents.get(i)));
+                    return Mono.just(rejected);
+                });
+    }
+
+    private Mono<BulkUpdate> updateAll(List<Map.Entry<String, UpdateOneModel<Document>>> targets, Map<String, RuntimeException> failures) {
+        List<Map.Entry<String, UpdateOneModel<Document>>> pending = targets.stream()
+                .filter(target -> !failures.containsKey(target.getKey()))
+                .toList();
+        if (pending.isEmpty()) {
+            return Mono.just(new BulkUpdate(List.of(), failures));
+        }
+        List<String> ids = pending.stream().map(Map.Entry::getKey).toList();
+
+        return resilience.write(events.writeAll(ops -> ops.getCollection(collectionName())
+                                .flatMap(collection -> Mono.from(collection.bulkWrite(pending.stream().map(Map.Entry::getValue).toList(),
+                                        new BulkWriteOptions().ordered(false))))
+                                .then(Mono.defer(() -> updated(ops, ids))),
+                        users -> users.stream().map(user -> UserEvent.of(UPDATED, user.id(), user.version(), user.name(), user.email())).toList()))
+                .map(users -> new BulkUpdate(users, failures))
+                .onErrorResume(MongoBulkWriteException.class, ex -> {
+                    Map<String, RuntimeException> rejected = new HashMap<>(failures);
+                    ex.getWriteErrors().forEach(error -> rejected.put(ids.get(error.getIndex()), translate(ex, error)));
+                    if (events.isEnabled()) {
+                        return updateAll(targets, rejected);
+                    }
+                    return updated(template, ids.stream().filter(id -> !rejected.containsKey(id)).toList())
+                            .map(users -> new BulkUpdate(users, rejected));
+                });
+    }
+
+    private Mono<List<UserResponse>> updated(ReactiveMongoOperations ops, List<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        Query query = responseFields(new Query(Criteria.where("id").in(ids).and("deleted").is(false)));
+
+        return ops.find(query, UserResponse.class, collectionName()).collectList();
+    }
+
+    private UserEvent created(User user, Document document) {
+        user.setId(document.getObjectId("_id").toHexString());
+        return UserEvent.of(CREATED, user.getId(), user.getVersion(), user.getName(), user.getEmail());
+    }
+
+    private RuntimeException translate(MongoBulkWriteException ex, BulkWriteError error) {
+        MongoWriteException failure = new MongoWriteException(new WriteError(error.getCode(), error.getMessage(), error.getDetails()),
+                ex.getServerAddress());
+        DataAccessException translated = EXCEPTIONS.translateExceptionIfPossible(failure);
+        return translated == null ? failure : translated;
+    }
+
+    private Document toDocument(User user) {
+        if (user.getVersion() == null) {
+            user.setVersion(0L);
+        }
+        if (user.getDeleted() == null) {
+            user.setDeleted(false);
+        }
+        Document document = new Document();
+        template.getConverter().write(user, document);
+        return document;
+    }
+
+    private Update changes(User changes) {
+        Update update = new Update().inc("version", 1);
+        if (changes.getName() != null) {
+            update.set("name", changes.getName());
+        }
+        if (changes.getEmail() != null) {
+            update.set("email", changes.getEmail());
+        }
+        if (changes.getPassword() != null) {
+            update.set("password", changes.getPassword());
+        }
+        return update;
+    }
+
+    private String collectionName() {
+        return template.getCollectionName(User.class);
+    }
+
+    private Query responseFields(Query query) {
+        query.fields().include("name", "email", "version");
+        return query;
+    }
+
+    Query searchQuery(UserSearchRequest search, UserCursor after) {
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(live());
+        if (hasText(search.email())) {
+            filters.add(Criteria.where("email").is(search.email()));
+        }
+        if (hasText(search.emailPrefix())) {
+            filters.add(Criteria.where("email").regex("^" + Pattern.quote(search.emailPrefix())));
+        }
+        if (hasText(search.name())) {
+            filters.add(Criteria.where("name").gte(search.name()).lt(search.name() + '\uffff'));
+        }
+        if (hasText(search.nameContains())) {
+            filters.add(Criteria.where("name").regex(Pattern.quote(search.nameContains()), "i"));
+        }
+
+        boolean byName = hasText(search.name());
+        if (after != null) {
+            filters.add(byName ? afterName(after) : Criteria.where("id").gt(after.id()));
+        }
+
+        Query query = new Query(filters.size() == 1 ? filters.get(0) : new Criteria().andOperator(filters))
+                .with(byName ? Sort.by("name", "id") : Sort.by("id"));
+        if (byName) {
+            query.collation(User.NAME_COLLATION);
+        }
+        return query;
+    }
+
+    private Criteria live() {
+        return Criteria.where("deleted").is(false);
+    }
+
+    private Criteria live(String id) {
+        return Criteria.where("id").is(id).and("deleted").is(false);
+    }
+
+    private Criteria afterName(UserCursor after) {
+        return new Criteria().andOperator(Criteria.where("name").gte(after.name()),
+                new Criteria().norOperator(Criteria.where("name").is(after.name()).and("id").lte(after.id())));
+    }
+
+    public record BulkUpdate(List<UserResponse> updated, Map<String, RuntimeException> failures) { }
 }
@@ -0,0 +1,65 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.HashedIndex;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Component
+public class UserShardKey {
+
+    public static final String FIELD = "_id";
+
+    private final ReactiveMongoTemplate template;
+    private final UserProperties.Sharding config;
+
+    public UserShardKey(final ReactiveMongoTemplate template, final UserProperties properties) {
+        this.template = template;
+        this.config = properties.getSharding();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public Document index() {
+        return new Document(FIELD, "hashed");
+    }
+
+    public Mono<Boolean> hasIndex() {
+        return template.indexOps(User.class).getIndexInfo()
+                .any(index -> isShardIndex(index.getIndexFields()));
+    }
+
+    public Flux<String> unprefixedUniqueIndexes() {
+        return template.indexOps(User.class).getIndexInfo()
+                .filter(index -> index.isUnique() && !index.getIndexFields().get(0).getKey().equals(FIELD))
+                .map(IndexInfo::getName);
+    }
+
+    public Mono<String> createIndex() {
+        return template.indexOps(User.class).ensureIndex(HashedIndex.hashed(FIELD));
+    }
+
+    public Mono<Document> deployedKey() {
+        return template.getMongoDatabase()
+                .map(database -> database.getName() + "." + template.getCollectionName(User.class))
+                .flatMap(namespace -> template.getMongoDatabaseFactory().getMongoDatabase("config")
+                        .flatMap(config -> Mono.from(config.getCollection("collections")
+                                .find(new Document("_id", namespace))
+                                .first())))
+                .mapNotNull(collection -> collection.get("key", Document.class));
+    }
+
+    private boolean isShardIndex(List<IndexField> fields) {
+        return fields.size() == 1 && fields.get(0).isHashed() && fields.get(0).getKey().equals(FIELD);
+    }
+}
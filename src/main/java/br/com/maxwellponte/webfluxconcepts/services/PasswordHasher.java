@@ -0,0 +1,71 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Scheduler scheduler;
+    private final MeterRegistry registry;
+    private final Timer latency;
+    private final Counter rejected;
+
+    public PasswordHasher(final UserProperties properties, final MeterRegistry registry) {
+        UserProperties.Password config = properties.getPassword();
+        this.encoder = new BCryptPasswordEncoder(config.getStrength());
+        this.executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hasher-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.scheduler = Schedulers.fromExecutorService(executor, "password-hasher");
+        this.registry = registry;
+
+        Gauge.builder("users.password.hash.queue", executor, pool -> pool.getQueue().size())
+                .register(registry);
+        Gauge.builder("users.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+        this.latency = Timer.builder("users.password.hash")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejected = Counter.builder("users.password.hash.rejected")
+                .register(registry);
+    }
+
+    public Mono<String> hash(final String password) {
+        return Mono.defer(() -> {
+                    Timer.Sample sample = Timer.start(registry);
+                    return Mono.fromCallable(() -> encoder.encode(password))
+                            .subscribeOn(scheduler)
+                            .doOnNext(hash -> sample.stop(latency));
+                })
+                .onErrorMap(RejectedExecutionException.class, ex -> {
+                    rejected.increment();
+                    return new ServiceUnavailableException("Password hashing capacity exhausted, try again later");
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+}
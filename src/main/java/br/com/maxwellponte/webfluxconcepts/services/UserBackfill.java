@@ -0,0 +1,91 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.entities.Migration;
+import br.com.maxwellponte.webfluxconcepts.repositories.MigrationRepository;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantRegistry;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserBackfill {
+
+    private static final String MIGRATION = "users-backfill-v1";
+    private static final List<String> LEGACY_INDEXES = List.of("email", "name_ci_id");
+
+    private final UserRepository repository;
+    private final MigrationRepository migrations;
+    private final TenantRegistry tenants;
+    private final ApplicationEventPublisher publisher;
+    private boolean completed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        run().subscribe(
+                unused -> { },
+                ex -> log.error("Could not backfill users, readiness stays refused: {}", ex.getMessage()),
+                this::complete);
+    }
+
+    @EventListener
+    public synchronized void readiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !completed) {
+            AvailabilityChangeEvent.publish(publisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    synchronized boolean isCompleted() {
+        return completed;
+    }
+
+    Mono<Void> run() {
+        return tenants.forEach(this::backfill).then();
+    }
+
+    private Mono<Void> backfill(String tenant) {
+        return migrations.isCompleted(MIGRATION)
+                .filter(completed -> !completed)
+                .flatMap(pending -> migrate(tenant)
+                        .then(Mono.defer(() -> migrations.save(Migration.builder().id(MIGRATION).completedAt(Instant.now()).build()))))
+                .doOnNext(migration -> log.info("Recorded migration {} of tenant {}", MIGRATION, tenant))
+                .then();
+    }
+
+    private Mono<Void> migrate(String tenant) {
+        return repository.backfillVersions()
+                .doOnNext(modified -> {
+                    if (modified > 0) {
+                        log.info("Initialized version on {} existing users of tenant {}", modified, tenant);
+                    }
+                })
+                .then(repository.backfillDeleted())
+                .doOnNext(modified -> {
+                    if (modified > 0) {
+                        log.info("Initialized deleted flag on {} existing users of tenant {}", modified, tenant);
+                    }
+                })
+                .thenMany(Flux.fromIterable(LEGACY_INDEXES)
+                        .concatMap(name -> repository.dropIndex(name)
+                                .filter(Boolean::booleanValue)
+                                .doOnNext(dropped -> log.info("Dropped legacy user index {} of tenant {}", name, tenant))))
+                .then();
+    }
+
+    private synchronized void complete() {
+        completed = true;
+        AvailabilityChangeEvent.publish(publisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class UserBatchLoader {
+
+    private static final String UNAVAILABLE = "User lookups are temporarily unavailable";
+    private static final Sinks.EmitFailureHandler CONTENDED = (signal, result) -> {
+        if (result != Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            return false;
+        }
+        Thread.onSpinWait();
+        return true;
+    };
+
+    private final UserRepository repository;
+    private final UserProperties.Batch config;
+    private final DistributionSummary batchSize;
+    private final Timer windowWait;
+    private final Counter overflow;
+    private final Disposable.Swap subscription = Disposables.swap();
+    private final Set<Pending> waiting = ConcurrentHashMap.newKeySet();
+    private volatile Sinks.Many<Pending> pending;
+    private volatile boolean closed;
+
+    public UserBatchLoader(final UserRepository repository, final UserProperties properties, final MeterRegistry registry) {
+        UserProperties.Batch config = properties.getBatch();
+        this.repository = repository;
+        this.config = config;
+        this.batchSize = DistributionSummary.builder("users.batch.size")
+                .register(registry);
+        this.windowWait = Timer.builder("users.batch.wait")
+                .register(registry);
+        this.overflow = Counter.builder("users.batch.overflow")
+                .register(registry);
+        start();
+    }
+
+    public Mono<UserResponse> load(final String id) {
+        if (!config.isEnabled()) {
+            return repository.findResponseById(id);
+        }
+        return Mono.deferContextual(context -> {
+            Pending request = new Pending(TenantContext.current(context), id, new CompletableFuture<>(), System.nanoTime());
+            waiting.add(request);
+            request.result().whenComplete((user, ex) -> waiting.remove(request));
+            Sinks.EmitResult result = emit(request);
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                waiting.remove(request);
+                overflow.increment();
+                return repository.findResponseById(id);
+            }
+            if (result.isFailure()) {
+                request.result().completeExceptionally(new ServiceUnavailableException(UNAVAILABLE));
+            }
+            return Mono.fromFuture(request.result(), true);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        subscription.dispose();
+        failWaiting();
+    }
+
+    private Sinks.EmitResult emit(Pending request) {
+        Sinks.EmitResult result;
+        do {
+            result = closed ? Sinks.EmitResult.FAIL_TERMINATED : pending.tryEmitNext(request);
+        } while (CONTENDED.onEmitFailure(SignalType.ON_NEXT, result));
+        return result;
+    }
+
+    private void start() {
+        Sinks.Many<Pending> sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<Pending>get(config.getMaxPending()).get());
+        pending = sink;
+        subscription.update(sink.asFlux()
+                .windowTimeout(config.getMaxSize(), config.getWindow(), true)
+                .flatMap(window -> window.collectList().flatMap(this::dispatch), config.getConcurrency())
+                .subscribe(null, this::restart, () -> restart(null)));
+    }
+
+    private synchronized void restart(Throwable ex) {
+        failWaiting();
+        if (!closed) {
+            log.warn("User batch loader terminated, restarting: {}", ex == null ? "completed" : ex.getMessage());
+            start();
+        }
+    }
+
+    private void failWaiting() {
+        waiting.forEach(request -> request.result().completeExceptionally(new ServiceUnavailableException(UNAVAILABLE)));
+    }
+
+    private Mono<Void> dispatch(List<Pending> batch) {
+        long now = System.nanoTime();
+        batch.forEach(request -> windowWait.record(now - request.enqueuedAt(), TimeUnit.NANOSECONDS));
+
+        return Flux.fromIterable(batch.stream().collect(Collectors.groupingBy(Pending::tenant)).entrySet())
+                .flatMap(tenant -> dispatch(tenant.getKey(), tenant.getValue()))
+                .then();
+    }
+
+    private Mono<Void> dispatch(String tenant, List<Pending> batch) {
+        Set<String> ids = batch.stream().map(Pending::id).collect(Collectors.toSet());
+        batchSize.record(ids.size());
+
+        return repository.findResponsesByIds(ids)
+                .contextWrite(context -> TenantContext.with(context, tenant))
+                .collectMap(UserResponse::id, Function.identity())
+                .doOnNext(found -> complete(batch, found))
+                .doOnError(ex -> batch.forEach(request -> request.result().completeExceptionally(ex)))
+                .onErrorResume(ex -> Mono.empty())
+                .then();
+    }
+
+    private void complete(List<Pending> batch, Map<String, UserResponse> found) {
+        batch.forEach(request -> request.result().complete(found.get(request.id())));
+    }
+
+    private record Pending(String tenant, String id, CompletableFuture<UserResponse> result, long enqueuedAt) { }
+}
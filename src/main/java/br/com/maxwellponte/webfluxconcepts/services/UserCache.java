@@ -0,0 +1,129 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+@Component
+public class UserCache {
+
+    private final boolean enabled;
+    private final AsyncCache<String, UserResponse> users;
+    private final Cache<String, Boolean> missing;
+
+    public UserCache(final UserProperties properties, final MeterRegistry registry) {
+        UserProperties.Cache config = properties.getCache();
+        this.enabled = config.isEnabled();
+        this.users = CaffeineCacheMetrics.monitor(registry, Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .buildAsync(), "users");
+        this.missing = CaffeineCacheMetrics.monitor(registry, Caffeine.newBuilder()
+                .maximumSize(config.getNegativeMaximumSize())
+                .expireAfterWrite(config.getNegativeTtl())
+                .recordStats()
+                .<String, Boolean>build(), "users.missing");
+    }
+
+    public Mono<UserResponse> get(final String id, final Function<String, Mono<UserResponse>> loader) {
+        return get(TenantContext.DEFAULT, id, loader);
+    }
+
+    public Mono<UserResponse> get(final String tenant, final String id, final Function<String, Mono<UserResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        String cacheKey = key(tenant, id);
+        if (missing.getIfPresent(cacheKey) != null) {
+            return Mono.empty();
+        }
+
+        CompletableFuture<UserResponse> future = users.get(cacheKey, (key, executor) -> loader.apply(id)
+                .contextWrite(context -> TenantContext.with(context, tenant))
+                .toFuture());
+        return Mono.fromFuture(future, true)
+                .doOnSuccess(user -> {
+                    if (user == null) {
+                        missing.put(cacheKey, Boolean.TRUE);
+                    }
+                })
+                .doOnError(ex -> users.asMap().remove(cacheKey, future))
+                .doOnCancel(() -> {
+                    if (!future.isDone()) {
+                        users.asMap().remove(cacheKey, future);
+                    }
+                });
+    }
+
+    public void put(final UserResponse user) {
+        put(TenantContext.DEFAULT, user);
+    }
+
+    public void put(final String tenant, final UserResponse user) {
+        if (enabled && user.id() != null) {
+            String cacheKey = key(tenant, user.id());
+            missing.invalidate(cacheKey);
+            users.asMap().compute(cacheKey, (key, current) -> newest(current, user));
+        }
+    }
+
+    public void refresh(final String tenant, final UserResponse user) {
+        String cacheKey = key(tenant, user.id());
+        missing.invalidate(cacheKey);
+        users.asMap().computeIfPresent(cacheKey, (key, current) -> newest(current, user));
+    }
+
+    public void invalidate(final String id) {
+        invalidate(TenantContext.DEFAULT, id);
+    }
+
+    public void invalidate(final String tenant, final String id) {
+        String cacheKey = key(tenant, id);
+        missing.invalidate(cacheKey);
+        users.synchronous().invalidate(cacheKey);
+    }
+
+    public void invalidateAll() {
+        missing.invalidateAll();
+        users.synchronous().invalidateAll();
+    }
+
+    public void invalidateAll(final String tenant) {
+        missing.asMap().keySet().removeIf(key -> isTenantKey(tenant, key));
+        users.asMap().keySet().removeIf(key -> isTenantKey(tenant, key));
+    }
+
+    public void expireAfterWrite(final Duration ttl) {
+        users.synchronous().policy().expireAfterWrite()
+                .ifPresent(expiration -> expiration.setExpiresAfter(ttl));
+    }
+
+    private static String key(String tenant, String id) {
+        return TenantContext.isDefault(tenant) ? id : tenant + '/' + id;
+    }
+
+    private static boolean isTenantKey(String tenant, String key) {
+        return TenantContext.isDefault(tenant) ? key.indexOf('/') < 0 : key.startsWith(tenant + '/');
+    }
+
+    private CompletableFuture<UserResponse> newest(CompletableFuture<UserResponse> current, UserResponse candidate) {
+        UserResponse cached = current == null ? null : current.getNow(null);
+        if (cached != null && cached.version() != null && candidate.version() != null
+                && cached.version() > candidate.version()) {
+            return current;
+        }
+        return CompletableFuture.completedFuture(candidate);
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.ResumeToken;
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.repositories.ResumeTokenRepository;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantRegistry;
+import com.mongodb.MongoException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "users.cache.change-stream", name = "enabled", havingValue = "true")
+public class UserCacheSynchronizer {
+
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ReactiveMongoTemplate template;
+    private final ResumeTokenRepository tokens;
+    private final UserCache cache;
+    private final TenantRegistry tenants;
+    private final UserProperties properties;
+
+    private final Map<String, Tokens> resumeTokens = new ConcurrentHashMap<>();
+    private final Set<String> connected = ConcurrentHashMap.newKeySet();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        UserProperties.ChangeStream config = properties.getCache().getChangeStream();
+
+        tenants.tenants().forEach(tenant -> subscriptions.add(tokens.findById(config.getNodeId())
+                .doOnNext(token -> tokens(tenant).restore(BsonDocument.parse(token.getToken())))
+                .thenMany(Flux.defer(() -> listen(tenant)))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, config.getMinBackoff())
+                        .maxBackoff(config.getMaxBackoff())
+                        .doBeforeRetry(signal -> disconnected(tenant, signal.failure())))
+                .contextWrite(context -> TenantContext.with(context, tenant))
+                .subscribe()));
+
+        subscriptions.add(Flux.interval(config.getTokenFlushInterval())
+                .concatMap(tick -> flushTokens())
+                .subscribe());
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+        flushTokens().timeout(SHUTDOWN_FLUSH_TIMEOUT, Mono.empty()).block();
+    }
+
+    Flux<ChangeStreamEvent<UserResponse>> listen(String tenant) {
+        BsonValue token = tokens(tenant).last.get();
+        return template.changeStream(User.class)
+                .withOptions(options -> {
+                    options.returnFullDocumentOnUpdate();
+                    options.filter(new Document("$project", new Document("fullDocument.password", 0)));
+                    if (token != null) {
+                        options.startAfter(token);
+                    }
+                })
+                .as(UserResponse.class)
+                .listen()
+                .doOnSubscribe(subscription -> connected(tenant))
+                .doOnNext(event -> apply(tenant, event));
+    }
+
+    void apply(String tenant, ChangeStreamEvent<UserResponse> event) {
+        switch (event.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                if (event.getBody() != null && !isDeleted(event)) {
+                    cache.refresh(tenant, event.getBody());
+                } else {
+                    cache.invalidate(tenant, documentId(event));
+                }
+            }
+            case DELETE -> cache.invalidate(tenant, documentId(event));
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> cache.invalidateAll(tenant);
+            default -> { }
+        }
+        tokens(tenant).last.set(event.getResumeToken());
+    }
+
+    synchronized void connected(String tenant) {
+        connected.add(tenant);
+        if (connected.containsAll(tenants.tenants())) {
+            cache.expireAfterWrite(properties.getCache().getChangeStream().getTtl());
+        }
+    }
+
+    synchronized void disconnected(String tenant, Throwable failure) {
+        log.warn("User change stream of tenant {} disconnected, falling back to TTL expiration: {}", tenant, failure.getMessage());
+        connected.remove(tenant);
+        cache.expireAfterWrite(properties.getCache().getTtl());
+        cache.invalidateAll(tenant);
+
+        if (NestedExceptionUtils.getMostSpecificCause(failure) instanceof MongoException ex
+                && (ex.getCode() == CHANGE_STREAM_HISTORY_LOST || ex.getCode() == CHANGE_STREAM_FATAL_ERROR)) {
+            tokens(tenant).last.set(null);
+        }
+    }
+
+    Mono<Void> flushTokens() {
+        return tenants.forEach(this::flushToken).then();
+    }
+
+    Mono<ResumeToken> flushToken(String tenant) {
+        Tokens stream = tokens(tenant);
+        BsonValue token = stream.last.get();
+        if (token == null || token.equals(stream.flushed.get())) {
+            return Mono.empty();
+        }
+
+        return tokens.save(ResumeToken.builder()
+                        .id(properties.getCache().getChangeStream().getNodeId())
+                        .token(token.asDocument().toJson())
+                        .updatedAt(Instant.now())
+                        .build())
+                .doOnNext(saved -> stream.flushed.set(token))
+                .onErrorResume(ex -> {
+                    log.warn("Could not persist user change stream resume token of tenant {}: {}", tenant, ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Tokens tokens(String tenant) {
+        return resumeTokens.computeIfAbsent(tenant, key -> new Tokens());
+    }
+
+    private boolean isDeleted(ChangeStreamEvent<UserResponse> event) {
+        Document document = event.getRaw() == null ? null : event.getRaw().getFullDocument();
+        return document != null && Boolean.TRUE.equals(document.get("deleted"));
+    }
+
+    private String documentId(ChangeStreamEvent<UserResponse> event) {
+        BsonValue id = event.getRaw().getDocumentKey().get("_id");
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private static final class Tokens {
+        private final AtomicReference<BsonValue> last = new AtomicReference<>();
+        private final AtomicReference<BsonValue> flushed = new AtomicReference<>();
+
+        private void restore(BsonValue token) {
+            last.set(token);
+            flushed.set(token);
+        }
+    }
+}
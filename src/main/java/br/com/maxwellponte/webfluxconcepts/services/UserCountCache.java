@@ -0,0 +1,44 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserSearchRequest;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Executor;
+
+@Component
+public class UserCountCache {
+
+    private final AsyncLoadingCache<Key, Long> counts;
+
+    public UserCountCache(final UserRepository repository, final UserProperties properties, final MeterRegistry registry) {
+        UserProperties.Count config = properties.getCount();
+        this.counts = CaffeineCacheMetrics.monitor(registry, Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .refreshAfterWrite(config.getRefreshAfter())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .buildAsync((Key key, Executor executor) -> (key.exact()
+                        ? repository.count(key.search())
+                        : repository.estimatedCount())
+                        .contextWrite(context -> TenantContext.with(context, key.tenant()))
+                        .toFuture()), "users.count");
+    }
+
+    public Mono<Long> get(final UserSearchRequest search, final boolean exact) {
+        return Mono.deferContextual(context -> {
+            String tenant = TenantContext.current(context);
+            Key key = search.isFiltered() ? new Key(tenant, search, true) : new Key(tenant, UserSearchRequest.ALL, exact);
+            return Mono.fromFuture(counts.get(key), true);
+        });
+    }
+
+    private record Key(String tenant, UserSearchRequest search, boolean exact) { }
+}
@@ -0,0 +1,121 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserMetrics;
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.mappers.UserMapper;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserRequest;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserImportResponse;
+import br.com.maxwellponte.webfluxconcepts.repositories.DuplicateKeys;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ServiceUnavailableException;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static br.com.maxwellponte.webfluxconcepts.config.UserMetrics.SERVICE;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    private static final String IMPORT_ITEM = "importItem";
+
+    private final UserRepository repository;
+    private final UserMapper mapper;
+    private final Validator validator;
+    private final UserProperties properties;
+    private final PasswordHasher passwordHasher;
+    private final UserMetrics metrics;
+
+    public Flux<UserImportResponse> importAll(final Flux<UserRequest> requests) {
+        UserProperties.Bulk bulk = properties.getBulk();
+        return metrics.timed(SERVICE, "importAll", requests.index()
+                .windowTimeout(bulk.getChunkSize(), bulk.getChunkTimeout(), true)
+                .flatMapSequential(chunk -> chunk.collectList().flatMapMany(this::importChunk), bulk.getConcurrency()));
+    }
+
+    private Flux<UserImportResponse> importChunk(List<Tuple2<Long, UserRequest>> chunk) {
+        UserImportResponse[] results = new UserImportResponse[chunk.size()];
+
+        return Flux.range(0, chunk.size())
+                .flatMapSequential(i -> toEntity(chunk.get(i), i, results), properties.getPassword().getThreads())
+                .collectList()
+                .flatMapMany(entities -> insert(chunk, entities, results));
+    }
+
+    private Mono<Tuple2<Integer, User>> toEntity(Tuple2<Long, UserRequest> item, int position, UserImportResponse[] results) {
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(item.getT2());
+        if (!violations.isEmpty()) {
+            results[position] = new UserImportResponse(item.getT1(), BAD_REQUEST.value(), null, describe(violations));
+            metrics.count(IMPORT_ITEM, "validation");
+            return Mono.empty();
+        }
+
+        return passwordHasher.hash(item.getT2().password())
+                .map(hash -> {
+                    User user = mapper.toEntity(item.getT2());
+                    user.setPassword(hash);
+                    return Tuples.of(position, user);
+                })
+                .onErrorResume(ServiceUnavailableException.class, ex -> {
+                    results[position] = new UserImportResponse(item.getT1(), SERVICE_UNAVAILABLE.value(), null, ex.getMessage());
+                    metrics.count(IMPORT_ITEM, "unavailable");
+                    return Mono.empty();
+                });
+    }
+
+    private Flux<UserImportResponse> insert(List<Tuple2<Long, UserRequest>> chunk, List<Tuple2<Integer, User>> entities,
+                                            UserImportResponse[] results) {
+        if (entities.isEmpty()) {
+            return Flux.fromArray(results);
+        }
+
+        List<User> users = entities.stream().map(Tuple2::getT2).toList();
+        return repository.insertUnordered(users)
+                .flatMapMany(failures -> {
+                    for (int j = 0; j < users.size(); j++) {
+                        int i = entities.get(j).getT1();
+                        long index = chunk.get(i).getT1();
+                        BulkWriteError failure = failures.get(j);
+                        results[i] = failure == null
+                                ? new UserImportResponse(index, CREATED.value(), users.get(j).getId(), null)
+                                : new UserImportResponse(index, BAD_REQUEST.value(), null, describe(failure));
+                        metrics.count(IMPORT_ITEM, failure == null ? "success" : outcome(failure));
+                    }
+                    return Flux.fromArray(results);
+                });
+    }
+
+    private String describe(Set<ConstraintViolation<UserRequest>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private String describe(BulkWriteError error) {
+        if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+            return DuplicateKeys.describe(error.getMessage());
+        }
+        return error.getMessage();
+    }
+
+    private String outcome(BulkWriteError error) {
+        return ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY ? "duplicate_key" : "error";
+    }
+}
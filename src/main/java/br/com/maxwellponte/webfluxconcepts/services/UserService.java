@@ -1,48 +1,220 @@
 package br.com.maxwellponte.webfluxconcepts.services;
 
+import br.com.maxwellponte.webfluxconcepts.config.UserMetrics;
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
 import br.com.maxwellponte.webfluxconcepts.entities.User;
 import br.com.maxwellponte.webfluxconcepts.mappers.UserMapper;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserCursor;
 import br.com.maxwellponte.webfluxconcepts.models.requests.UserRequest;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserSearchRequest;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserBatchGetResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserCountResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserPageResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.repositories.ReadConsistency;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
 import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.BadRequestException;
 import br.com.maxwellponte.webfluxconcepts.services.exceptions.ObjectNotFoundException;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.PreconditionFailedException;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static br.com.maxwellponte.webfluxconcepts.config.UserMetrics.SERVICE;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.util.StringUtils.hasText;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final String NOT_FOUND_TYPE = ", type: " + User.class.getSimpleName();
+    private static final char CURSOR_SEPARATOR = ':';
+
     private final UserRepository repository;
     private final UserMapper mapper;
+    private final UserProperties properties;
+    private final UserCache cache;
+    private final UserBatchLoader batchLoader;
+    private final UserCountCache countCache;
+    private final PasswordHasher passwordHasher;
+    private final UserMetrics metrics;
+    private final UserWriteBehind writeBehind;
 
     public Mono<User> save(final UserRequest request){
-        return repository.save(mapper.toEntity(request));
+        return metrics.timed(SERVICE, "save", Mono.deferContextual(context -> passwordHasher.hash(request.password())
+                .map(hash -> withPassword(mapper.toEntity(request), hash))
+                .flatMap(repository::save)
+                .doOnNext(user -> cache.put(TenantContext.current(context), mapper.toResponse(user)))));
+    }
+
+    public Mono<UserResponse> findResponseById(final String id) {
+        return metrics.timed(SERVICE, "findResponseById", handleNotFound(Mono.deferContextual(context -> ReadConsistency.requested(context)
+                ? repository.findResponseById(id).doOnNext(user -> cache.put(TenantContext.current(context), user))
+                : cache.get(TenantContext.current(context), id, batchLoader::load)), id));
+    }
+
+    public Flux<UserBatchGetResponse> findAllById(final List<String> ids) {
+        return metrics.timed(SERVICE, "findAllById", Flux.defer(() -> {
+            Set<String> requested = new LinkedHashSet<>(ids);
+            int maxIds = properties.getBatchGet().getMaxIds();
+            if (requested.size() > maxIds) {
+                throw new BadRequestException(String.format("At most %d ids can be requested at once", maxIds));
+            }
+
+            Set<String> found = new HashSet<>();
+            return repository.findResponsesByIds(requested)
+                    .doOnNext(user -> found.add(user.id()))
+                    .map(user -> new UserBatchGetResponse(user.id(), OK.value(), user))
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(requested)
+                            .filter(id -> !found.contains(id))
+                            .map(id -> new UserBatchGetResponse(id, NOT_FOUND.value(), null))));
+        }));
+    }
+
+    public Mono<UserPageResponse> findPage(final UserSearchRequest search, final String after, final Integer limit) {
+        return metrics.timed(SERVICE, "findPage", Mono.defer(() -> {
+            int size = resolveLimit(limit);
+            return repository.findPage(search, decodeCursor(search, after), size + 1)
+                    .collectList()
+                    .map(users -> toPage(search, users, size));
+        }));
     }
 
-    public Mono<User> findById(final String id) {
-        return handleNotFound(repository.findById(id), id);
+    public Mono<UserCountResponse> count(final UserSearchRequest search, final boolean exact) {
+        boolean exactCount = exact || search.isFiltered();
+        return metrics.timed(SERVICE, "count", countCache.get(search, exact)
+                .map(count -> new UserCountResponse(count, exactCount)));
     }
 
-    public Flux<User> findAll() {
-        return repository.findAll();
+    public Flux<UserResponse> stream(final UserSearchRequest search, final String after) {
+        int batchSize = properties.getPagination().getStreamBatchSize();
+        return metrics.timed(SERVICE, "stream", Flux.defer(() -> repository.findAllAfter(search, decodeCursor(search, after), batchSize))
+                .limitRate(batchSize));
     }
 
-    public Mono<User> update(final String id, final UserRequest request) {
-        return findById(id)
-                .map(entity -> mapper.toEntity(request, entity))
-                .flatMap(repository::save);
+    public Mono<UserResponse> update(final String id, final UserRequest request, final String ifMatch) {
+        return metrics.timed(SERVICE, "update", Mono.deferContextual(context -> handleNotFound(Mono.defer(() -> {
+            Long expected = parseVersion(ifMatch);
+            Mono<User> changes = request.password() == null
+                    ? Mono.fromSupplier(() -> mapper.toEntity(request))
+                    : passwordHasher.hash(request.password()).map(hash -> withPassword(mapper.toEntity(request), hash));
+
+            return changes.flatMap(user -> writeBehind.isEnabled()
+                            ? writeBehind.update(id, expected, user)
+                            : repository.findAndModify(id, expected, user).doOnNext(updated -> cache.put(TenantContext.current(context), updated)))
+                    .switchIfEmpty(Mono.defer(() -> expected == null ? Mono.empty() : repository.exists(id)
+                            .flatMap(exists -> exists ? Mono.error(modified(id, ifMatch)) : Mono.empty())));
+        }), id)));
+    }
 
+    public Flux<UserResponse> export(final String after) {
+        int batchSize = properties.getPagination().getStreamBatchSize();
+        return metrics.timed(SERVICE, "export", Flux.defer(() -> repository.findAllAfter(UserSearchRequest.ALL, resumeFrom(after), batchSize))
+                .limitRate(batchSize));
     }
 
     public Mono<User> delete(final String id){
-        return handleNotFound(repository.findAndRemove(id), id);
+        Mono<User> deleted = properties.getSoftDelete().isEnabled() ? repository.softDelete(id) : repository.findAndRemove(id);
+        return metrics.timed(SERVICE, "delete", Mono.deferContextual(context -> handleNotFound(deleted, id)
+                .doOnNext(user -> cache.invalidate(TenantContext.current(context), id))));
     }
 
     private <T> Mono<T> handleNotFound(Mono<T> mono, String id){
-        return mono.switchIfEmpty(Mono.error(
-                new ObjectNotFoundException(String.format("Object not Found. Id: %s, type: %s", id, User.class.getSimpleName()))
-        ));
+        return mono.switchIfEmpty(Mono.error(() -> new ObjectNotFoundException("Object not Found. Id: " + id + NOT_FOUND_TYPE)));
+    }
+
+    private PreconditionFailedException modified(String id, String ifMatch) {
+        return new PreconditionFailedException(String.format("User %s does not match If-Match %s", id, ifMatch));
+    }
+
+    private User withPassword(User user, String hash) {
+        user.setPassword(hash);
+        return user;
+    }
+
+    private int resolveLimit(Integer limit) {
+        UserProperties.Pagination pagination = properties.getPagination();
+        if (limit == null) {
+            return pagination.getDefaultLimit();
+        }
+        if (limit < 1 || limit > pagination.getMaxLimit()) {
+            throw new BadRequestException(String.format("Limit must be between 1 and %d", pagination.getMaxLimit()));
+        }
+        return limit;
+    }
+
+    private UserPageResponse toPage(UserSearchRequest search, List<UserResponse> users, int size) {
+        boolean hasNext = users.size() > size;
+        List<UserResponse> content = hasNext ? users.subList(0, size) : users;
+        String next = hasNext ? encodeCursor(nextCursor(search, content.get(size - 1))) : null;
+
+        return new UserPageResponse(content, next);
+    }
+
+    private UserCursor nextCursor(UserSearchRequest search, UserResponse last) {
+        return hasText(search.name()) ? new UserCursor(last.id(), last.name()) : UserCursor.of(last.id());
+    }
+
+    static Long parseVersion(String etag) {
+        if (etag == null || etag.isBlank() || etag.trim().equals("*")) {
+            return null;
+        }
+        String value = etag.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.valueOf(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        throw new PreconditionFailedException("If-Match must be a single strong ETag: " + etag);
+    }
+
+    public static String encodeCursor(String id) {
+        return encodeCursor(UserCursor.of(id));
+    }
+
+    public static String encodeCursor(UserCursor cursor) {
+        String value = cursor.name() == null ? cursor.id() : cursor.id() + CURSOR_SEPARATOR + cursor.name();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static UserCursor resumeFrom(String after) {
+        return after != null && ObjectId.isValid(after) ? UserCursor.of(after) : decodeCursor(after);
+    }
+
+    static UserCursor decodeCursor(UserSearchRequest search, String cursor) {
+        UserCursor decoded = decodeCursor(cursor);
+        if (decoded != null && hasText(search.name()) && decoded.name() == null) {
+            throw new BadRequestException("Cursor does not match the name search: " + cursor);
+        }
+        return decoded;
+    }
+
+    static UserCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(CURSOR_SEPARATOR);
+            String id = separator < 0 ? value : value.substring(0, separator);
+            if (ObjectId.isValid(id)) {
+                return new UserCursor(id, separator < 0 ? null : value.substring(separator + 1));
+            }
+        } catch (IllegalArgumentException ignored) {
+        }
+        throw new BadRequestException("Invalid cursor: " + cursor);
     }
 }
@@ -0,0 +1,68 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantIndexes;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantRegistry;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserShardKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "users.sharding", name = "enabled", havingValue = "true")
+public class UserShardingCheck {
+
+    private final UserShardKey shardKey;
+    private final TenantRegistry tenants;
+    private final TenantIndexes indexes;
+    private final UserProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        run().onErrorResume(ex -> !(ex instanceof IllegalStateException), ex -> {
+                    log.warn("Could not verify user sharding: {}", ex.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+    }
+
+    Mono<Void> run() {
+        return tenants.forEach(this::check).then();
+    }
+
+    private Mono<Void> check(String tenant) {
+        return shardKey.unprefixedUniqueIndexes()
+                .collectList()
+                .flatMap(unique -> unique.isEmpty()
+                        ? Mono.empty()
+                        : Mono.error(new IllegalStateException("Users collection of tenant " + tenant + " has unique indexes " + unique
+                                + " not prefixed by the shard key " + shardKey.index().toJson() + ", drop them before sharding")))
+                .then(Mono.defer(() -> indexes.ensure(tenant)))
+                .then(shardKey.hasIndex())
+                .flatMap(present -> {
+                    if (present) {
+                        return Mono.empty();
+                    }
+                    if (!properties.getSharding().isCreateMissingIndexes()) {
+                        log.error("Missing hashed index {} required to shard users of tenant {}", shardKey.index().toJson(), tenant);
+                        return Mono.empty();
+                    }
+                    return shardKey.createIndex()
+                            .doOnNext(name -> log.info("Created shard key index {} on users of tenant {}", name, tenant));
+                })
+                .then(Mono.fromRunnable(() -> log.warn("Email uniqueness is not enforced for users of tenant {} while sharding is enabled", tenant)))
+                .then(shardKey.deployedKey())
+                .flatMap(key -> key.equals(shardKey.index())
+                        ? Mono.just(key)
+                        : Mono.error(new IllegalStateException("Users collection of tenant " + tenant + " is sharded on " + key.toJson()
+                                + " but users.sharding expects " + shardKey.index().toJson())))
+                .switchIfEmpty(Mono.fromRunnable(() -> log.info("Users collection of tenant {} is not sharded yet, shard it on {}", tenant, shardKey.index().toJson())))
+                .then();
+    }
+}
@@ -0,0 +1,232 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static br.com.maxwellponte.webfluxconcepts.config.UserProperties.WriteBehind.Durability.BUFFERED;
+
+@Slf4j
+@Component
+public class UserWriteBehind {
+
+    public static final UserResponse ACCEPTED = new UserResponse(null, null, null);
+
+    private final UserRepository repository;
+    private final UserCache cache;
+    private final UserProperties.WriteBehind config;
+    private final Stripe[] stripes;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Counter coalesced;
+    private final Counter bypassed;
+    private final DistributionSummary flushSize;
+
+    public UserWriteBehind(final UserRepository repository, final UserCache cache, final UserProperties properties,
+                           final MeterRegistry registry) {
+        this.repository = repository;
+        this.cache = cache;
+        this.config = properties.getWriteBehind();
+        this.stripes = new Stripe[Math.max(1, config.getStripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.coalesced = Counter.builder("users.write_behind.coalesced").register(registry);
+        this.bypassed = Counter.builder("users.write_behind.bypassed").register(registry);
+        this.flushSize = DistributionSummary.builder("users.write_behind.flush.size").register(registry);
+        Gauge.builder("users.write_behind.pending", pending, AtomicInteger::get).register(registry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public Mono<UserResponse> update(final String id, final Long version, final User changes) {
+        return Mono.deferContextual(context -> {
+            String tenant = TenantContext.current(context);
+            if (version != null) {
+                return flush(stripe(tenant, id))
+                        .then(Mono.defer(() -> repository.findAndModify(id, version, changes)))
+                        .doOnNext(user -> cache.put(tenant, user));
+            }
+
+            if (config.getDurability() == BUFFERED) {
+                return repository.exists(id)
+                        .filter(Boolean::booleanValue)
+                        .flatMap(exists -> buffer(tenant, id, changes));
+            }
+            return buffer(tenant, id, changes);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed.set(true);
+        Flux.fromArray(stripes)
+                .flatMap(this::flush)
+                .then()
+                .block(config.getShutdownTimeout());
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    private Mono<UserResponse> buffer(String tenant, String id, User changes) {
+        Entry entry = closed.get() ? null : enqueue(tenant, id, changes);
+        if (entry == null) {
+            bypassed.increment();
+            return repository.findAndModify(id, null, changes)
+                    .doOnNext(user -> cache.put(tenant, user));
+        }
+        if (config.getDurability() == BUFFERED) {
+            cache.invalidate(tenant, id);
+            return Mono.just(ACCEPTED);
+        }
+        return Mono.fromFuture(entry.result, true);
+    }
+
+    private Entry enqueue(String tenant, String id, User changes) {
+        Stripe stripe = stripe(tenant, id);
+        Entry buffered = stripe.entries.compute(key(tenant, id), (key, current) -> {
+            if (current != null) {
+                current.merge(changes);
+                coalesced.increment();
+                return current;
+            }
+            if (pending.incrementAndGet() > config.getMaxPending()) {
+                pending.decrementAndGet();
+                return null;
+            }
+            Entry entry = new Entry(tenant, id);
+            entry.merge(changes);
+            return entry;
+        });
+        if (buffered != null && stripe.scheduled.compareAndSet(false, true)) {
+            Mono.delay(config.getWindow())
+                    .then(Mono.defer(() -> flush(stripe)))
+                    .subscribe();
+        }
+        return buffered;
+    }
+
+    private Mono<Void> flush(Stripe stripe) {
+        stripe.scheduled.set(false);
+        List<Entry> batch = new ArrayList<>();
+        for (String key : stripe.entries.keySet()) {
+            Entry entry = stripe.entries.remove(key);
+            if (entry != null) {
+                batch.add(entry);
+            }
+        }
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        pending.addAndGet(-batch.size());
+        flushSize.record(batch.size());
+
+        return Flux.fromIterable(batch.stream().collect(Collectors.groupingBy(Entry::tenant)).entrySet())
+                .flatMap(tenant -> write(tenant.getKey(), tenant.getValue()))
+                .then();
+    }
+
+    private Mono<Void> write(String tenant, List<Entry> batch) {
+        Map<String, User> changes = batch.stream().collect(Collectors.toMap(Entry::id, Entry::changes));
+
+        return repository.updateAll(changes)
+                .contextWrite(context -> TenantContext.with(context, tenant))
+                .doOnNext(result -> {
+                    Map<String, UserResponse> updated = result.updated().stream()
+                            .collect(Collectors.toMap(UserResponse::id, Function.identity()));
+                    batch.forEach(entry -> {
+                        RuntimeException failure = result.failures().get(entry.id());
+                        if (failure != null) {
+                            entry.result.completeExceptionally(failure);
+                            return;
+                        }
+                        UserResponse user = updated.get(entry.id());
+                        if (user != null) {
+                            cache.put(tenant, user);
+                        }
+                        entry.result.complete(user);
+                    });
+                })
+                .doOnError(ex -> batch.forEach(entry -> entry.result.completeExceptionally(ex)))
+                .onErrorResume(ex -> {
+                    log.warn("Could not flush {} buffered user updates: {}", batch.size(), ex.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Stripe stripe(String tenant, String id) {
+        return stripes[Math.floorMod(key(tenant, id).hashCode(), stripes.length)];
+    }
+
+    private static String key(String tenant, String id) {
+        return TenantContext.isDefault(tenant) ? id : tenant + '/' + id;
+    }
+
+    private static final class Stripe {
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+    }
+
+    private static final class Entry {
+        private final String tenant;
+        private final String id;
+        private final User changes = User.builder().build();
+        private final CompletableFuture<UserResponse> result = new CompletableFuture<>();
+
+        private Entry(String tenant, String id) {
+            this.tenant = tenant;
+            this.id = id;
+        }
+
+        private String tenant() {
+            return tenant;
+        }
+
+        private String id() {
+            return id;
+        }
+
+        private User changes() {
+            return changes;
+        }
+
+        private void merge(User update) {
+            if (update.getName() != null) {
+                changes.setName(update.getName());
+            }
+            if (update.getEmail() != null) {
+                changes.setEmail(update.getEmail());
+            }
+            if (update.getPassword() != null) {
+                changes.setPassword(update.getPassword());
+            }
+        }
+
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.maxwellponte.webfluxconcepts.services.exceptions;
+
+public class BadRequestException extends RuntimeException{
+    public BadRequestException(String msg){
+        super(msg, null, false, false);
+    }
+}
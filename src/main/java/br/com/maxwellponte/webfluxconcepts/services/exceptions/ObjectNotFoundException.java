@@ -2,6 +2,6 @@ package br.com.maxwellponte.webfluxconcepts.services.exceptions;
 
 public class ObjectNotFoundException extends RuntimeException{
     public ObjectNotFoundException(String msg){
-        super(msg);
+        super(msg, null, false, false);
     }
 }
@@ -0,0 +1,7 @@
+package br.com.maxwellponte.webfluxconcepts.services.exceptions;
+
+public class PreconditionFailedException extends RuntimeException{
+    public PreconditionFailedException(String msg){
+        super(msg, null, false, false);
+    }
+}
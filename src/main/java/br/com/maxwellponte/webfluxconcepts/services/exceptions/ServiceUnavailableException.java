@@ -0,0 +1,7 @@
+package br.com.maxwellponte.webfluxconcepts.services.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException{
+    public ServiceUnavailableException(String msg){
+        super(msg, null, false, false);
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.maxwellponte.webfluxconcepts.services.outbox;
+
+import br.com.maxwellponte.webfluxconcepts.entities.UserEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+
+public class LocalUserEventSink implements UserEventSink {
+
+    private final Sinks.Many<UserEvent> events = Sinks.many().multicast().directBestEffort();
+
+    @Override
+    public Mono<Void> publish(final List<UserEvent> batch) {
+        return Mono.defer(() -> {
+            for (UserEvent event : batch) {
+                Sinks.EmitResult result = events.tryEmitNext(event);
+                if (result.isFailure()) {
+                    return Mono.error(new IllegalStateException("Could not deliver user event " + event.getId() + ": " + result));
+                }
+            }
+            return Mono.empty();
+        });
+    }
+
+    public Flux<UserEvent> events() {
+        return events.asFlux();
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.maxwellponte.webfluxconcepts.services.outbox;
+
+import br.com.maxwellponte.webfluxconcepts.entities.UserEvent;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface UserEventSink {
+
+    Mono<Void> publish(List<UserEvent> events);
+}
@@ -0,0 +1,15 @@
+package br.com.maxwellponte.webfluxconcepts.services.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserOutboxConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(UserEventSink.class)
+    public UserEventSink localUserEventSink() {
+        return new LocalUserEventSink();
+    }
+}
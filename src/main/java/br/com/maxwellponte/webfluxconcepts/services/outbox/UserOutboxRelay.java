@@ -0,0 +1,94 @@
+package br.com.maxwellponte.webfluxconcepts.services.outbox;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.UserEvent;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantRegistry;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "users.outbox", name = "enabled", havingValue = "true")
+public class UserOutboxRelay {
+
+    private final UserEventRepository events;
+    private final UserEventSink sink;
+    private final UserProperties.Outbox config;
+    private final TenantRegistry tenants;
+    private final Counter published;
+    private final Timer lag;
+    private final Disposable.Swap subscription = Disposables.swap();
+
+    public UserOutboxRelay(final UserEventRepository events, final UserEventSink sink, final TenantRegistry tenants,
+                           final UserProperties properties, final MeterRegistry registry) {
+        this.events = events;
+        this.sink = sink;
+        this.tenants = tenants;
+        this.config = properties.getOutbox();
+        this.published = Counter.builder("users.outbox.published").register(registry);
+        this.lag = Timer.builder("users.outbox.lag").register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription.update(Mono.defer(this::drain)
+                .repeatWhen(drained -> drained.concatMap(count -> Mono.delay(config.getPollInterval())))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, config.getMinBackoff())
+                        .maxBackoff(config.getMaxBackoff())
+                        .doBeforeRetry(signal -> log.warn("User outbox relay failed, retrying: {}", signal.failure().getMessage())))
+                .subscribe());
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscription.dispose();
+    }
+
+    Mono<Void> drain() {
+        return tenants.forEach(tenant -> relayBatch()
+                .expand(candidates -> candidates == config.getBatchSize() ? relayBatch() : Mono.empty()))
+                .then();
+    }
+
+    Mono<Integer> relayBatch() {
+        Instant now = Instant.now();
+        return Mono.deferContextual(context -> events.findPendingIds(now, config.getBatchSize())
+                .collectList()
+                .flatMap(ids -> ids.isEmpty() ? Mono.just(0) : events.lease(ids, config.getNodeId(), now, now.plus(config.getLease()))
+                        .thenMany(events.findLeased(ids, config.getNodeId()))
+                        .doOnNext(event -> event.setTenant(TenantContext.current(context)))
+                        .collectList()
+                        .flatMap(this::publish)
+                        .thenReturn(ids.size())));
+    }
+
+    private Mono<Long> publish(List<UserEvent> batch) {
+        if (batch.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return sink.publish(batch)
+                .then(Mono.defer(() -> events.markPublished(batch.stream().map(UserEvent::getId).toList(), Instant.now())))
+                .doOnNext(marked -> {
+                    published.increment(batch.size());
+                    Instant now = Instant.now();
+                    batch.forEach(event -> lag.record(Duration.between(event.getOccurredAt(), now)));
+                });
+    }
+}
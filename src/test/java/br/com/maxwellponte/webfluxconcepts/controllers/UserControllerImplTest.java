@@ -2,10 +2,21 @@ package br.com.maxwellponte.webfluxconcepts.controllers;
 
 import br.com.maxwellponte.webfluxconcepts.entities.User;
 import br.com.maxwellponte.webfluxconcepts.mappers.UserMapper;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserBatchGetRequest;
 import br.com.maxwellponte.webfluxconcepts.models.requests.UserRequest;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserSearchRequest;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserBatchGetResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserCountResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserImportResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserPageResponse;
 import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.services.UserImportService;
 import br.com.maxwellponte.webfluxconcepts.services.UserService;
+import br.com.maxwellponte.webfluxconcepts.services.UserWriteBehind;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.BadRequestException;
 import br.com.maxwellponte.webfluxconcepts.services.exceptions.ObjectNotFoundException;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.PreconditionFailedException;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ServiceUnavailableException;
 import com.mongodb.reactivestreams.client.MongoClient;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,13 +26,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.BodyInserters;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -38,12 +56,16 @@ class UserControllerImplTest {
     public static final String EMAIL = "maxwell@mail.com";
     public static final String PASSWORD = "123";
     public static final String BASE_URI = "/users";
+    public static final String CURSOR = "NjNiNmEzZjI3YjFkMmU0YjVhOWMwZDEy";
     @Autowired
     private WebTestClient webTestClient;
 
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserImportService userImportService;
+
     @MockBean
     private UserMapper userMapper;
 
@@ -87,13 +109,124 @@ class UserControllerImplTest {
         Mockito.verify(userService, times(0)).save(any(UserRequest.class));
     }
 
+    @Test
+    @DisplayName("Test endpoint save with duplicated email")
+    void testSaveWithDuplicatedEmail() {
+        UserRequest userRequest = new UserRequest(NAME, EMAIL, PASSWORD);
+
+        when(userService.save(any(UserRequest.class))).thenReturn(Mono.error(new DuplicateKeyException(
+                "E11000 duplicate key error collection: webflux-concepts.user index: email_live dup key: { email: \"maxwell@mail.com\" }")));
+
+        webTestClient.post().uri(BASE_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(userRequest))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.path").isEqualTo(BASE_URI)
+                .jsonPath("$.status").isEqualTo(HttpStatus.BAD_REQUEST.value())
+                .jsonPath("$.message").isEqualTo("Email already registered");
+    }
+
+    @Test
+    @DisplayName("Test endpoint save with service unavailable")
+    void testSaveWithServiceUnavailable() {
+        UserRequest userRequest = new UserRequest(NAME, EMAIL, PASSWORD);
+
+        when(userService.save(any(UserRequest.class))).thenReturn(Mono.error(new ServiceUnavailableException("Password hashing capacity exhausted, try again later")));
+
+        webTestClient.post().uri(BASE_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(userRequest))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectBody()
+                .jsonPath("$.path").isEqualTo(BASE_URI)
+                .jsonPath("$.status").isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .jsonPath("$.message").isEqualTo("Password hashing capacity exhausted, try again later");
+    }
+
+    @Test
+    @DisplayName("Test endpoint saveAll with per item results")
+    void testSaveAllWithSuccess() {
+        UserImportResponse created = new UserImportResponse(0, HttpStatus.CREATED.value(), ID, null);
+        UserImportResponse duplicated = new UserImportResponse(1, HttpStatus.BAD_REQUEST.value(), null, "Email already registered");
+
+        when(userImportService.importAll(any())).thenReturn(Flux.just(created, duplicated));
+
+        webTestClient.post().uri(BASE_URI + "/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(BodyInserters.fromValue(new UserRequest(NAME, EMAIL, PASSWORD)))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserImportResponse.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNext(created, duplicated)
+                .verifyComplete();
+
+        Mockito.verify(userImportService, times(1)).importAll(any());
+    }
+
+    @Test
+    @DisplayName("Test endpoint findAllById with success")
+    void testFindAllByIdWithSuccess() {
+        UserBatchGetResponse found = new UserBatchGetResponse(ID, HttpStatus.OK.value(), new UserResponse(ID, NAME, EMAIL));
+        UserBatchGetResponse missing = new UserBatchGetResponse("654321", HttpStatus.NOT_FOUND.value(), null);
+
+        when(userService.findAllById(any())).thenReturn(Flux.just(found, missing));
+
+        webTestClient.post().uri(BASE_URI + "/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(BodyInserters.fromValue(new UserBatchGetRequest(List.of(ID, "654321"))))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserBatchGetResponse.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNext(found, missing)
+                .verifyComplete();
+
+        Mockito.verify(userService, times(1)).findAllById(List.of(ID, "654321"));
+    }
+
+    @Test
+    @DisplayName("Test endpoint findAllById without ids")
+    void testFindAllByIdWithoutIds() {
+        webTestClient.post().uri(BASE_URI + "/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(BodyInserters.fromValue(new UserBatchGetRequest(List.of())))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        Mockito.verify(userService, times(0)).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Test endpoint count with success")
+    void testCountWithSuccess() {
+        when(userService.count(any(), Mockito.anyBoolean())).thenReturn(Mono.just(new UserCountResponse(42, true)));
+
+        webTestClient.get().uri(BASE_URI + "/count?exact=true&name=max")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(42)
+                .jsonPath("$.exact").isEqualTo(true);
+
+        Mockito.verify(userService, times(1)).count(new UserSearchRequest(null, null, "max", null), true);
+    }
+
     @Test
     @DisplayName("Test endpoint findById with success")
     void testFindByIdWithSuccess() {
         UserResponse userResponse = new UserResponse(ID, NAME, EMAIL);
 
-        when(userService.findById(anyString())).thenReturn(Mono.just(User.builder().build()));
-        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
+        when(userService.findResponseById(anyString())).thenReturn(Mono.just(userResponse));
 
         webTestClient.get().uri(BASE_URI + "/" + ID)
                 .accept(MediaType.APPLICATION_JSON)
@@ -105,10 +238,31 @@ class UserControllerImplTest {
                 .jsonPath("$.email").isEqualTo(EMAIL);
     }
 
+    @Test
+    @DisplayName("Test endpoint findById with ETag and If-None-Match")
+    void testFindByIdNotModified() {
+        when(userService.findResponseById(anyString())).thenReturn(Mono.just(new UserResponse(ID, NAME, EMAIL, 3L)));
+
+        webTestClient.get().uri(BASE_URI + "/" + ID)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody()
+                .jsonPath("$.version").doesNotExist();
+
+        webTestClient.get().uri(BASE_URI + "/" + ID)
+                .accept(MediaType.APPLICATION_JSON)
+                .ifNoneMatch("\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
     @Test
     @DisplayName("Test endpoint findById with not found")
     void testFindByIdWithNotFound() {
-        when(userService.findById(anyString())).thenThrow(new ObjectNotFoundException(String.format("Object not Found. Id: %s, type: %s", ID, User.class.getSimpleName())));
+        when(userService.findResponseById(anyString())).thenThrow(new ObjectNotFoundException(String.format("Object not Found. Id: %s, type: %s", ID, User.class.getSimpleName())));
 
         webTestClient.get().uri(BASE_URI + "/" + ID)
                 .accept(MediaType.APPLICATION_JSON)
@@ -126,17 +280,108 @@ class UserControllerImplTest {
     void testFindAllWithSuccess() {
         UserResponse userResponse = new UserResponse(ID, NAME, EMAIL);
 
-        when(userService.findAll()).thenReturn(Flux.just(User.builder().build()));
-        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
+        when(userService.findPage(any(), any(), any())).thenReturn(Mono.just(new UserPageResponse(List.of(userResponse), CURSOR)));
 
-        webTestClient.get().uri(BASE_URI)
-                .accept(MediaType.APPLICATION_JSON)
+        webTestClient.get().uri(BASE_URI + "?limit=1&after=" + CURSOR)
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(ID)
+                .jsonPath("$.content[0].name").isEqualTo(NAME)
+                .jsonPath("$.content[0].email").isEqualTo(EMAIL)
+                .jsonPath("$.next").isEqualTo(CURSOR);
+
+        Mockito.verify(userService, times(1)).findPage(UserSearchRequest.ALL, CURSOR, 1);
+    }
+
+    @Test
+    @DisplayName("Test endpoint findAll with search filters")
+    void testFindAllWithSearchFilters() {
+        when(userService.findPage(any(), any(), any())).thenReturn(Mono.just(new UserPageResponse(List.of(), null)));
+
+        webTestClient.get().uri(BASE_URI + "?name=max&nameContains=well&email=" + EMAIL + "&emailPrefix=max")
+                .exchange()
+                .expectStatus().isOk();
+
+        Mockito.verify(userService, times(1)).findPage(new UserSearchRequest(EMAIL, "max", "max", "well"), null, null);
+    }
+
+    @Test
+    @DisplayName("Test endpoint findAll with bad request")
+    void testFindAllWithBadRequest() {
+        when(userService.findPage(any(), any(), any())).thenReturn(Mono.error(new BadRequestException("Invalid cursor: " + CURSOR)));
+
+        webTestClient.get().uri(BASE_URI + "?after=" + CURSOR)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
                 .expectBody()
-                .jsonPath("$.[0].id").isEqualTo(ID)
-                .jsonPath("$.[0].name").isEqualTo(NAME)
-                .jsonPath("$.[0].email").isEqualTo(EMAIL);
+                .jsonPath("$.path").isEqualTo(BASE_URI)
+                .jsonPath("$.status").isEqualTo(HttpStatus.BAD_REQUEST.value())
+                .jsonPath("$.message").isEqualTo("Invalid cursor: " + CURSOR);
+    }
+
+    @Test
+    @DisplayName("Test endpoint stream with success")
+    void testStreamWithSuccess() {
+        UserResponse userResponse = new UserResponse(ID, NAME, EMAIL);
+
+        when(userService.stream(any(), any())).thenReturn(Flux.just(userResponse, userResponse));
+
+        webTestClient.get().uri(BASE_URI)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserResponse.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNext(userResponse, userResponse)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test endpoint export as NDJSON")
+    void testExportAsNdjson() {
+        UserResponse userResponse = new UserResponse(ID, NAME, EMAIL);
+
+        when(userService.export(any())).thenReturn(Flux.just(userResponse, userResponse));
+
+        webTestClient.get().uri(BASE_URI + "/export?after=" + CURSOR)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserResponse.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNext(userResponse, userResponse)
+                .verifyComplete();
+
+        Mockito.verify(userService, times(1)).export(CURSOR);
+    }
+
+    @Test
+    @DisplayName("Test endpoint export as server-sent events resuming from Last-Event-ID")
+    void testExportAsServerSentEvents() {
+        String id = "63b6a3f27b1d2e4b5a9c0d12";
+        when(userService.export(any())).thenReturn(Flux.just(new UserResponse(id, NAME, EMAIL)));
+
+        webTestClient.get().uri(BASE_URI + "/export")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", CURSOR)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<UserResponse>>() { })
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextMatches(event -> CURSOR.equals(event.id())
+                        && "user".equals(event.event())
+                        && id.equals(event.data().id()))
+                .verifyComplete();
+
+        Mockito.verify(userService, times(1)).export(CURSOR);
     }
 
     @Test
@@ -145,8 +390,7 @@ class UserControllerImplTest {
         UserRequest userRequest = new UserRequest(NAME, EMAIL, PASSWORD);
         UserResponse userResponse = new UserResponse(ID, NAME, EMAIL);
 
-        when(userService.update(anyString(), any(UserRequest.class))).thenReturn(Mono.just(User.builder().build()));
-        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
+        when(userService.update(anyString(), any(UserRequest.class), any())).thenReturn(Mono.just(userResponse));
 
         webTestClient.patch().uri(BASE_URI + "/" + ID)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -158,9 +402,42 @@ class UserControllerImplTest {
                 .jsonPath("$.name").isEqualTo(NAME)
                 .jsonPath("$.email").isEqualTo(EMAIL);
 
-        Mockito.verify(userService, times(1)).update(anyString(), any(UserRequest.class));
-        Mockito.verify(userMapper, times(1)).toResponse(any(User.class));
+        Mockito.verify(userService, times(1)).update(anyString(), any(UserRequest.class), any());
+    }
+
+    @Test
+    @DisplayName("Test endpoint update accepted into the write-behind buffer")
+    void testUpdateAccepted() {
+        UserRequest userRequest = new UserRequest(NAME, EMAIL, PASSWORD);
+
+        when(userService.update(anyString(), any(UserRequest.class), any())).thenReturn(Mono.just(UserWriteBehind.ACCEPTED));
+
+        webTestClient.patch().uri(BASE_URI + "/" + ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(userRequest))
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test endpoint update with stale If-Match")
+    void testUpdateWithPreconditionFailed() {
+        UserRequest userRequest = new UserRequest(NAME, EMAIL, PASSWORD);
+
+        when(userService.update(anyString(), any(UserRequest.class), any()))
+                .thenReturn(Mono.error(new PreconditionFailedException("User " + ID + " does not match If-Match \"1\"")));
+
+        webTestClient.patch().uri(BASE_URI + "/" + ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .body(BodyInserters.fromValue(userRequest))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(HttpStatus.PRECONDITION_FAILED.value());
 
+        Mockito.verify(userService, times(1)).update(ID, userRequest, "\"1\"");
     }
 
     @Test
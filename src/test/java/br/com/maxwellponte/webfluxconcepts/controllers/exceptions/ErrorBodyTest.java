@@ -0,0 +1,54 @@
+package br.com.maxwellponte.webfluxconcepts.controllers.exceptions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+class ErrorBodyTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void testRenderMatchesStandardErrorJson() throws IOException {
+        JsonNode error = objectMapper.readTree(ErrorBody.of(BAD_REQUEST, "Email already registered").render("/users"));
+        JsonNode expected = objectMapper.valueToTree(StandardError.builder()
+                .timestamp(LocalDateTime.now())
+                .path("/users")
+                .status(400)
+                .error("Bad Request")
+                .message("Email already registered")
+                .build());
+
+        List<String> expectedFields = new ArrayList<>();
+        expected.fieldNames().forEachRemaining(expectedFields::add);
+        List<String> fields = new ArrayList<>();
+        error.fieldNames().forEachRemaining(fields::add);
+
+        Assertions.assertEquals(expectedFields, fields);
+        Assertions.assertEquals(((ObjectNode) expected).without("timestamp"), ((ObjectNode) error.deepCopy()).without("timestamp"));
+        LocalDateTime timestamp = objectMapper.convertValue(error.get("timestamp"), LocalDateTime.class);
+        Assertions.assertTrue(Duration.between(timestamp, LocalDateTime.now()).abs().toSeconds() < 5);
+    }
+
+    @Test
+    void testRenderEscapesRequestControlledText() throws IOException {
+        String id = "\"}, \"status\": 200, \\ é";
+        JsonNode error = objectMapper.readTree(ErrorBody.of(NOT_FOUND).render("/users/" + id, "Object not Found. Id: " + id));
+
+        Assertions.assertEquals("/users/" + id, error.get("path").asText());
+        Assertions.assertEquals(404, error.get("status").asInt());
+        Assertions.assertEquals("Object not Found. Id: " + id, error.get("message").asText());
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.maxwellponte.webfluxconcepts.controllers.filters;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+class AdmissionControlTest {
+
+    @Test
+    void testQueuedRequestIsAdmittedOnRelease() {
+        AdmissionControl control = new AdmissionControl(config(1, 1, Duration.ofSeconds(5)));
+
+        Assertions.assertTrue(control.acquire().block());
+        Mono<Boolean> waiting = control.acquire();
+
+        StepVerifier.create(waiting)
+                .then(() -> Assertions.assertEquals(1, control.queued()))
+                .then(control::release)
+                .expectNext(true)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(1, control.inFlight());
+        Assertions.assertEquals(0, control.queued());
+    }
+
+    @Test
+    void testFullQueueRejectsImmediately() {
+        AdmissionControl control = new AdmissionControl(config(1, 1, Duration.ofSeconds(5)));
+        control.acquire().block();
+        control.acquire().subscribe();
+
+        StepVerifier.create(control.acquire())
+                .expectNext(false)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void testQueueTimeoutGivesUpWithoutLeakingPermits() {
+        AdmissionControl control = new AdmissionControl(config(1, 1, Duration.ofMillis(20)));
+        control.acquire().block();
+
+        StepVerifier.create(control.acquire())
+                .expectNext(false)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        control.release();
+        Assertions.assertEquals(0, control.inFlight());
+        Assertions.assertEquals(0, control.queued());
+        Assertions.assertTrue(control.acquire().block());
+    }
+
+    private UserProperties.Admission config(int maxInFlight, int maxQueued, Duration queueTimeout) {
+        UserProperties.Admission config = new UserProperties.Admission();
+        config.setMaxInFlight(maxInFlight);
+        config.setMaxQueued(maxQueued);
+        config.setQueueTimeout(queueTimeout);
+        return config;
+    }
+}
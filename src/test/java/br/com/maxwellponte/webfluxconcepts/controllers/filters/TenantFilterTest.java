@@ -0,0 +1,120 @@
+package br.com.maxwellponte.webfluxconcepts.controllers.filters;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantIndexes;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TenantFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TenantIndexes indexes = mock(TenantIndexes.class);
+
+    @Test
+    void testTenantHeaderIsPropagatedThroughContext() {
+        WebTestClient client = client(properties());
+
+        client.get().uri("/users/tenant").header("X-Tenant-Id", "acme").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("acme");
+        client.get().uri("/users/tenant").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(TenantContext.DEFAULT);
+
+        verify(indexes).ensure("acme");
+    }
+
+    @Test
+    void testUnknownOrMissingTenantIsRejected() {
+        UserProperties properties = properties();
+        properties.getTenancy().setRequired(true);
+        WebTestClient client = client(properties);
+
+        client.get().uri("/users/tenant").header("X-Tenant-Id", "globex").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Unknown tenant");
+        client.get().uri("/users/tenant").header("X-Tenant-Id", "../admin").exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/users/tenant").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Tenant header is required");
+        client.get().uri("/tenant").exchange().expectStatus().isOk();
+
+        verify(indexes, never()).ensure(anyString());
+    }
+
+    @Test
+    void testOnlyDefaultTenantIsAcceptedWithoutAllowList() {
+        UserProperties properties = properties();
+        properties.getTenancy().setTenants(List.of());
+        WebTestClient client = client(properties);
+
+        client.get().uri("/users/tenant").header("X-Tenant-Id", "acme").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Unknown tenant");
+        client.get().uri("/users/tenant").header("X-Tenant-Id", TenantContext.DEFAULT).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(TenantContext.DEFAULT);
+
+        verify(indexes, never()).ensure("acme");
+        Assertions.assertTrue(registry.find("users.tenant.in_flight").gauges().stream()
+                .noneMatch(gauge -> "acme".equals(gauge.getId().getTag("tenant"))));
+    }
+
+    @Test
+    void testTenantOverCapacityIsRejected() {
+        UserProperties properties = properties();
+        properties.getTenancy().getAdmission().setMaxInFlight(0);
+        properties.getTenancy().getAdmission().setMaxQueued(0);
+        WebTestClient client = client(properties);
+
+        client.get().uri("/users/tenant").header("X-Tenant-Id", "acme").exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1");
+
+        Assertions.assertEquals(1.0, registry.get("users.tenant.rejected").tag("tenant", "acme").counter().count());
+        Assertions.assertEquals(0.0, registry.get("users.tenant.in_flight").tag("tenant", "acme").gauge().value());
+    }
+
+    private UserProperties properties() {
+        UserProperties properties = new UserProperties();
+        properties.getTenancy().setEnabled(true);
+        properties.getTenancy().setTenants(List.of("acme"));
+        return properties;
+    }
+
+    private WebTestClient client(UserProperties properties) {
+        when(indexes.ensure(anyString())).thenReturn(Mono.empty());
+        return WebTestClient.bindToController(new TenantController())
+                .webFilter(new TenantFilter(properties, new TenantRegistry(properties), indexes, registry))
+                .build();
+    }
+
+    @RestController
+    static class TenantController {
+        @GetMapping({"/users/tenant", "/tenant"})
+        Mono<String> tenant() {
+            return Mono.deferContextual(context -> Mono.just(TenantContext.current(context)));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.maxwellponte.webfluxconcepts.controllers.filters;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.adapter.ForwardedHeaderTransformer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+class UserAdmissionFilterTest {
+
+    private static final String USER = "X-Test-User";
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testRateLimitRejectsBurstPerClientWithRetryAfter() {
+        UserProperties properties = new UserProperties();
+        properties.getRateLimit().setEnabled(true);
+        properties.getRateLimit().setPermitsPerSecond(1);
+        properties.getRateLimit().setBurst(2);
+        WebTestClient client = client(properties);
+
+        client.get().uri("/users/ping").header(USER, "a").exchange().expectStatus().isOk();
+        client.get().uri("/users/ping").header(USER, "a").exchange().expectStatus().isOk();
+        client.get().uri("/users/ping").header(USER, "a").exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                .expectBody()
+                .jsonPath("$.path").isEqualTo("/users/ping")
+                .jsonPath("$.status").isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value())
+                .jsonPath("$.error").isEqualTo(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        client.get().uri("/users/ping").header(USER, "b").exchange().expectStatus().isOk();
+
+        Assertions.assertEquals(1.0, registry.get("users.admission.rejected").tag("reason", "rate_limited").counter().count());
+    }
+
+    @Test
+    void testAnonymousClientsCannotPickTheirRateLimitKey() {
+        UserProperties properties = new UserProperties();
+        properties.getRateLimit().setEnabled(true);
+        properties.getRateLimit().setPermitsPerSecond(1);
+        properties.getRateLimit().setBurst(1);
+        WebTestClient client = client(properties);
+
+        client.get().uri("/users/ping").header("X-API-Key", "a").exchange().expectStatus().isOk();
+        client.get().uri("/users/ping").header("X-API-Key", "b").exchange().expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void testForwardedClientsGetTheirOwnBucket() {
+        UserProperties properties = new UserProperties();
+        properties.getRateLimit().setEnabled(true);
+        properties.getRateLimit().setPermitsPerSecond(1);
+        properties.getRateLimit().setBurst(1);
+        WebTestClient client = client(properties);
+
+        client.get().uri("/users/ping").header(FORWARDED_FOR, "203.0.113.1").exchange().expectStatus().isOk();
+        client.get().uri("/users/ping").header(FORWARDED_FOR, "203.0.113.1").exchange().expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        client.get().uri("/users/ping").header(FORWARDED_FOR, "203.0.113.2").exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void testStreamsHoldTheirOwnPermitUntilCompletion() {
+        UserProperties properties = new UserProperties();
+        properties.getRateLimit().setEnabled(false);
+        properties.getStreamAdmission().setMaxInFlight(1);
+        properties.getStreamAdmission().setMaxQueued(0);
+        UserAdmissionFilter filter = new UserAdmissionFilter(properties, registry);
+
+        Disposable export = filter.filter(exchange("/users/export", MediaType.APPLICATION_NDJSON),
+                streaming -> streaming.getResponse().setComplete().then(Mono.never())).subscribe();
+        Assertions.assertEquals(1.0, registry.get("users.admission.streams.in_flight").gauge().value());
+        Assertions.assertEquals(0.0, registry.get("users.admission.in_flight").gauge().value());
+
+        MockServerWebExchange rejected = exchange("/users", MediaType.APPLICATION_NDJSON);
+        filter.filter(rejected, unused -> Mono.empty()).block();
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+        MockServerWebExchange unary = exchange("/users/1", MediaType.APPLICATION_JSON);
+        filter.filter(unary, unused -> Mono.empty()).block();
+        Assertions.assertNull(unary.getResponse().getStatusCode());
+
+        export.dispose();
+        Assertions.assertEquals(0.0, registry.get("users.admission.streams.in_flight").gauge().value());
+    }
+
+    @Test
+    void testAdmissionRejectsWhenNoCapacityIsLeft() {
+        UserProperties properties = new UserProperties();
+        properties.getAdmission().setMaxInFlight(0);
+        properties.getAdmission().setMaxQueued(0);
+        WebTestClient client = client(properties);
+
+        client.get().uri("/users/ping").exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        client.get().uri("/ping").exchange().expectStatus().isOk();
+    }
+
+    private static MockServerWebExchange exchange(String path, MediaType accept) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).accept(accept));
+    }
+
+    private WebTestClient client(UserProperties properties) {
+        UserAdmissionFilter filter = new UserAdmissionFilter(properties, registry);
+        WebFilter authentication = (exchange, chain) -> {
+            String user = exchange.getRequest().getHeaders().getFirst(USER);
+            return user == null ? chain.filter(exchange) : chain.filter(exchange.mutate().principal(Mono.just(() -> user)).build());
+        };
+        ForwardedHeaderTransformer forwarded = new ForwardedHeaderTransformer();
+        WebFilter proxy = (exchange, chain) -> chain.filter(exchange.mutate().request(forwarded.apply(exchange.getRequest())).build());
+        return WebTestClient.bindToController(new PingController())
+                .webFilter(proxy, authentication, filter)
+                .build();
+    }
+
+    @RestController
+    static class PingController {
+        @GetMapping({"/users/ping", "/ping"})
+        Mono<String> ping() {
+            return Mono.just("pong");
+        }
+    }
+}
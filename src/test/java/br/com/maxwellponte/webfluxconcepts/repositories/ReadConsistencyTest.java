@@ -0,0 +1,56 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import com.mongodb.reactivestreams.client.ClientSession;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReadConsistencyTest {
+
+    @Test
+    void testTokenCarriesTheLatestWriteTimesToTheNextRequest() {
+        BsonTimestamp operationTime = new BsonTimestamp(1_700_000_000, 3);
+        BsonDocument clusterTime = new BsonDocument("clusterTime", operationTime);
+        ClientSession write = mock(ClientSession.class);
+        when(write.getOperationTime()).thenReturn(operationTime);
+        when(write.getClusterTime()).thenReturn(clusterTime);
+
+        ReadConsistency consistency = ReadConsistency.from(null);
+        Assertions.assertNull(consistency.token());
+        consistency.advance(write);
+
+        ClientSession read = mock(ClientSession.class);
+        ReadConsistency.from(consistency.token()).apply(read);
+
+        verify(read).advanceOperationTime(operationTime);
+        verify(read).advanceClusterTime(clusterTime);
+    }
+
+    @Test
+    void testAdvanceNeverMovesBackwards() {
+        ClientSession newer = mock(ClientSession.class);
+        when(newer.getOperationTime()).thenReturn(new BsonTimestamp(20, 1));
+        ClientSession older = mock(ClientSession.class);
+        when(older.getOperationTime()).thenReturn(new BsonTimestamp(10, 1));
+
+        ReadConsistency consistency = ReadConsistency.from(null);
+        consistency.advance(newer);
+        consistency.advance(older);
+
+        Assertions.assertEquals(new BsonTimestamp(20, 1),
+                BsonDocument.parse(new String(Base64.getUrlDecoder().decode(consistency.token()))).getTimestamp("operationTime"));
+    }
+
+    @Test
+    void testMalformedTokensAreIgnored() {
+        Assertions.assertFalse(ReadConsistency.from("not a token").isPresent());
+        Assertions.assertFalse(ReadConsistency.from("e30").isPresent());
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TenantDatabaseFactoryTest {
+
+    private final ReactiveMongoDatabaseFactory delegate = mock(ReactiveMongoDatabaseFactory.class);
+    private final MongoDatabase base = mock(MongoDatabase.class);
+    private final MongoDatabase acme = mock(MongoDatabase.class);
+    private final TenantDatabaseFactory factory = new TenantDatabaseFactory(delegate);
+
+    @Test
+    void testDefaultTenantUsesConfiguredDatabase() {
+        when(delegate.getMongoDatabase()).thenReturn(Mono.just(base));
+
+        StepVerifier.create(factory.getMongoDatabase())
+                .expectNext(base)
+                .verifyComplete();
+    }
+
+    @Test
+    void testTenantIsRoutedToItsOwnDatabase() {
+        when(base.getName()).thenReturn("webflux-concepts");
+        when(delegate.getMongoDatabase()).thenReturn(Mono.just(base));
+        when(delegate.getMongoDatabase("webflux-concepts_acme")).thenReturn(Mono.just(acme));
+
+        StepVerifier.create(factory.getMongoDatabase()
+                        .contextWrite(context -> TenantContext.with(context, "acme")))
+                .expectNext(acme)
+                .verifyComplete();
+    }
+}
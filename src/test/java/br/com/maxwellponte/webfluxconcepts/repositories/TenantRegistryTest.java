@@ -0,0 +1,44 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+
+class TenantRegistryTest {
+
+    @Test
+    void testOnlyDefaultTenantIsRegisteredWhenTenancyIsDisabled() {
+        UserProperties properties = new UserProperties();
+        properties.getTenancy().setTenants(List.of("acme"));
+
+        Assertions.assertEquals(Set.of(TenantContext.DEFAULT), new TenantRegistry(properties).tenants());
+    }
+
+    @Test
+    void testForEachRunsWorkInsideEveryTenantContext() {
+        UserProperties properties = new UserProperties();
+        properties.getTenancy().setEnabled(true);
+        properties.getTenancy().setTenants(List.of("acme", "globex"));
+        TenantRegistry registry = new TenantRegistry(properties);
+
+        StepVerifier.create(registry.forEach(tenant -> Mono.deferContextual(context ->
+                        Mono.just(tenant + "=" + TenantContext.current(context)))))
+                .expectNext("default=default", "acme=acme", "globex=globex")
+                .verifyComplete();
+        Assertions.assertFalse(registry.contains("initech"));
+    }
+
+    @Test
+    void testInvalidTenantFailsStartup() {
+        UserProperties properties = new UserProperties();
+        properties.getTenancy().setEnabled(true);
+        properties.getTenancy().setTenants(List.of("../admin"));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> new TenantRegistry(properties));
+    }
+}
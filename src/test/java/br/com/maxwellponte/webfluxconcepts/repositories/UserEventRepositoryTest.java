@@ -0,0 +1,68 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.entities.UserEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.function.Function;
+
+import static br.com.maxwellponte.webfluxconcepts.entities.UserEvent.Type.CREATED;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserEventRepositoryTest {
+
+    private final ReactiveMongoTemplate template = mock(ReactiveMongoTemplate.class);
+    private final MongoReadRouting routing = mock(MongoReadRouting.class);
+    private final ReactiveMongoOperations operations = mock(ReactiveMongoOperations.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWriteInsertsEventInTheSameTransaction() {
+        when(routing.inTransaction(any())).thenAnswer(invocation ->
+                invocation.<Function<ReactiveMongoOperations, Mono<User>>>getArgument(0).apply(operations));
+        when(operations.insert(any(UserEvent.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        UserEventRepository events = new UserEventRepository(template, routing, properties(true));
+
+        StepVerifier.create(events.write(ops -> Mono.just(User.builder().id("1").name("maxwell").version(0L).build()),
+                        user -> UserEvent.of(CREATED, user.getId(), user.getVersion(), user.getName(), user.getEmail())))
+                .expectNextMatches(user -> "1".equals(user.getId()))
+                .verifyComplete();
+
+        ArgumentCaptor<UserEvent> event = ArgumentCaptor.forClass(UserEvent.class);
+        verify(operations).insert(event.capture());
+        Assertions.assertEquals(CREATED, event.getValue().getType());
+        Assertions.assertEquals("1", event.getValue().getUserId());
+        Assertions.assertNotNull(event.getValue().getId());
+        verify(routing, never()).write(any());
+    }
+
+    @Test
+    void testWriteSkipsOutboxWhenDisabled() {
+        when(routing.write(any())).thenReturn(Mono.just(User.builder().id("1").build()));
+        UserEventRepository events = new UserEventRepository(template, routing, properties(false));
+
+        StepVerifier.create(events.write(ops -> Mono.just(User.builder().id("1").build()),
+                        user -> UserEvent.of(CREATED, user.getId(), null, null, null)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(routing, never()).inTransaction(any());
+    }
+
+    private static UserProperties properties(boolean enabled) {
+        UserProperties properties = new UserProperties();
+        properties.getOutbox().setEnabled(enabled);
+        return properties;
+    }
+}
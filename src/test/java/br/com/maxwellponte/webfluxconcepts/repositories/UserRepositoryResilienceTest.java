@@ -0,0 +1,261 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserMetrics;
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.entities.UserEvent;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserSearchRequest;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ServiceUnavailableException;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserRepositoryResilienceTest {
+
+    private final ReactiveMongoTemplate template = mock(ReactiveMongoTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UserProperties properties = properties();
+    private final MongoResilience resilience = new MongoResilience(properties, registry);
+    private final MongoReadRouting routing = new MongoReadRouting(template, properties, null);
+    private final UserRepository repository = new UserRepository(template, new UserMetrics(registry, properties), resilience,
+            routing, new UserEventRepository(template, routing, properties));
+
+    @Test
+    void testFindResponseByIdRetriesTransientFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        when(template.findOne(any(Query.class), eq(UserResponse.class), any())).thenReturn(Mono.defer(() -> calls.incrementAndGet() < 3
+                ? Mono.error(new DataAccessResourceFailureException("connection reset"))
+                : Mono.just(new UserResponse("1", "maxwell", null))));
+
+        StepVerifier.create(repository.findResponseById("1"))
+                .expectNextMatches(user -> "maxwell".equals(user.name()))
+                .verifyComplete();
+
+        Assertions.assertEquals(3, calls.get());
+        Assertions.assertEquals(2.0, registry.get("users.repository.retries").tag("operation", "findResponseById").counter().count());
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, resilience.state());
+    }
+
+    @Test
+    void testSlowReadTimesOutAsServiceUnavailable() {
+        AtomicInteger calls = new AtomicInteger();
+        when(template.findOne(any(Query.class), eq(UserResponse.class), any())).thenReturn(Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.delay(Duration.ofSeconds(5)).thenReturn(new UserResponse("1", null, null));
+        }));
+
+        StepVerifier.create(repository.findResponseById("1"))
+                .expectError(ServiceUnavailableException.class)
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testWritesAreNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        when(template.insert(any(User.class))).thenReturn(Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new DataAccessResourceFailureException("connection reset"));
+        }));
+
+        StepVerifier.create(repository.save(User.builder().name("maxwell").build()))
+                .expectError(ServiceUnavailableException.class)
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testNonTransientErrorsPassThroughWithoutTrippingBreaker() {
+        when(template.insert(any(User.class))).thenReturn(Mono.error(new DuplicateKeyException("email")));
+
+        for (int i = 0; i < 10; i++) {
+            StepVerifier.create(repository.save(User.builder().name("maxwell").build()))
+                    .expectError(DuplicateKeyException.class)
+                    .verify(Duration.ofSeconds(5));
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, resilience.state());
+    }
+
+    @Test
+    void testBreakerOpensFailsFastAndClosesAfterProbe() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger failing = new AtomicInteger(1);
+        when(template.insert(any(User.class))).thenReturn(Mono.defer(() -> {
+            calls.incrementAndGet();
+            return failing.get() == 1
+                    ? Mono.error(new DataAccessResourceFailureException("no primary"))
+                    : Mono.just(User.builder().id("1").build());
+        }));
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(repository.save(User.builder().build()))
+                    .expectError(ServiceUnavailableException.class)
+                    .verify(Duration.ofSeconds(5));
+        }
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, resilience.state());
+
+        StepVerifier.create(repository.save(User.builder().build()))
+                .expectErrorMessage(MongoResilience.UNAVAILABLE)
+                .verify(Duration.ofSeconds(5));
+        Assertions.assertEquals(3, calls.get());
+        Assertions.assertEquals(1.0, registry.get("users.repository.circuit.rejected").counter().count());
+        Assertions.assertEquals(1.0, registry.get("users.repository.circuit.state").gauge().value());
+
+        failing.set(0);
+        Thread.sleep(250);
+
+        StepVerifier.create(repository.save(User.builder().build()))
+                .expectNextCount(1)
+                .verifyComplete();
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, resilience.state());
+        Assertions.assertEquals(0.0, registry.get("users.repository.circuit.state").gauge().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdateAllFailsOnlyTheRejectedIds() {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        BulkWriteError duplicate = new BulkWriteError(11000,
+                "E11000 duplicate key error collection: webflux-concepts.user index: email_live dup key: { email: \"joana@mail.com\" }",
+                new BsonDocument(), 1);
+        when(template.getConverter()).thenReturn(converter());
+        when(template.getCollectionName(User.class)).thenReturn("user");
+        when(template.getCollection("user")).thenReturn(Mono.just(collection));
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(Mono.error(new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()), List.of(duplicate), null, new ServerAddress(), Set.of())));
+        when(template.find(any(Query.class), eq(UserResponse.class), eq("user"))).thenReturn(Flux.just(new UserResponse("1", "maxwell", null, 2L)));
+
+        Map<String, User> changes = new LinkedHashMap<>();
+        changes.put("1", User.builder().name("maxwell").build());
+        changes.put("2", User.builder().email("joana@mail.com").build());
+
+        StepVerifier.create(repository.updateAll(changes))
+                .expectNextMatches(result -> result.updated().size() == 1
+                        && result.failures().keySet().equals(Set.of("2"))
+                        && result.failures().get("2") instanceof DuplicateKeyException)
+                .verifyComplete();
+
+        ArgumentCaptor<Query> readBack = ArgumentCaptor.forClass(Query.class);
+        verify(template).find(readBack.capture(), eq(UserResponse.class), eq("user"));
+        Assertions.assertEquals(List.of("1"), readBack.getValue().getQueryObject().get("id", Document.class).get("$in"));
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, resilience.state());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInsertUnorderedRetriesTheTransactionWithoutRejectedUsers() {
+        UserEventRepository events = mock(UserEventRepository.class);
+        UserRepository transactional = new UserRepository(template, new UserMetrics(registry, properties), resilience,
+                routing, events);
+        List<UserEvent> appended = new ArrayList<>();
+        when(events.isEnabled()).thenReturn(true);
+        when(events.writeAll(any(), any())).thenAnswer(invocation -> ((Function<ReactiveMongoOperations, Mono<Object>>) invocation.getArgument(0))
+                .apply(template)
+                .doOnNext(result -> appended.addAll(((Function<Object, List<UserEvent>>) invocation.getArgument(1)).apply(result))));
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        BulkWriteError duplicate = new BulkWriteError(11000,
+                "E11000 duplicate key error collection: webflux-concepts.user index: email_live dup key: { email: \"joana@mail.com\" }",
+                new BsonDocument(), 1);
+        when(template.getConverter()).thenReturn(converter());
+        when(template.getCollectionName(User.class)).thenReturn("user");
+        when(template.getCollection("user")).thenReturn(Mono.just(collection));
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class)))
+                .thenReturn(Mono.error(new MongoBulkWriteException(BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+                        List.of(duplicate), null, new ServerAddress(), Set.of())))
+                .thenAnswer(invocation -> {
+                    ((List<Document>) invocation.getArgument(0)).forEach(document -> document.putIfAbsent("_id", new ObjectId()));
+                    return Mono.just(InsertManyResult.acknowledged(Map.of()));
+                });
+        List<User> users = List.of(User.builder().name("maxwell").email("maxwell@mail.com").build(),
+                User.builder().name("joana").email("joana@mail.com").build());
+
+        StepVerifier.create(transactional.insertUnordered(users))
+                .expectNextMatches(failures -> failures.keySet().equals(Set.of(1)))
+                .verifyComplete();
+
+        ArgumentCaptor<List<Document>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(collection, times(2)).insertMany(inserted.capture(), any(InsertManyOptions.class));
+        Assertions.assertEquals(1, inserted.getAllValues().get(1).size());
+        Assertions.assertEquals(List.of(users.get(0).getId()), appended.stream().map(UserEvent::getUserId).toList());
+        Assertions.assertNull(users.get(1).getId());
+    }
+
+    @Test
+    void testStreamingReadDoesNotRetryAfterFirstElement() {
+        AtomicInteger calls = new AtomicInteger();
+        when(template.find(any(Query.class), eq(UserResponse.class), any())).thenReturn(Flux.defer(() -> {
+            calls.incrementAndGet();
+            return Flux.just(new UserResponse("1", "maxwell", null))
+                    .concatWith(Flux.error(new DataAccessResourceFailureException("cursor killed")));
+        }));
+
+        StepVerifier.create(repository.findAllAfter(UserSearchRequest.ALL, null, 100))
+                .expectNextCount(1)
+                .expectError(ServiceUnavailableException.class)
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        return new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    }
+
+    private static UserProperties properties() {
+        UserProperties properties = new UserProperties();
+        UserProperties.Resilience resilience = properties.getResilience();
+        resilience.setReadTimeout(Duration.ofMillis(50));
+        resilience.setMinBackoff(Duration.ofMillis(1));
+        resilience.setMaxBackoff(Duration.ofMillis(5));
+        resilience.setFailureThreshold(3);
+        resilience.setOpenDuration(Duration.ofMillis(200));
+        return properties;
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserMetrics;
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserCursor;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserSearchRequest;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+
+class UserRepositoryTest {
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static String unavailable;
+    private static MongoClient client;
+    private static ReactiveMongoTemplate template;
+
+    private final ReactiveMongoTemplate operations = template == null ? mock(ReactiveMongoTemplate.class) : template;
+    private final MongoReadRouting routing = new MongoReadRouting(operations, new UserProperties(), null);
+    private final UserRepository repository = new UserRepository(operations,
+            new UserMetrics(new SimpleMeterRegistry(), new UserProperties()),
+            new MongoResilience(new UserProperties(), new SimpleMeterRegistry()),
+            routing, new UserEventRepository(operations, routing, new UserProperties()));
+
+    @BeforeAll
+    static void startMongo() {
+        try {
+            mongod = Mongod.instance().start(Version.Main.V6_0);
+        } catch (RuntimeException ex) {
+            unavailable = NestedExceptionUtils.getMostSpecificCause(ex).toString();
+            return;
+        }
+        client = MongoClients.create(String.format("mongodb://%s:%d",
+                mongod.current().getServerAddress().getHost(), mongod.current().getServerAddress().getPort()));
+        template = new ReactiveMongoTemplate(client, "users-explain");
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.refresh();
+        ((MongoMappingContext) template.getConverter().getMappingContext()).setApplicationContext(context);
+
+        IndexResolver.create(template.getConverter().getMappingContext()).resolveIndexFor(User.class)
+                .forEach(index -> template.indexOps(User.class).ensureIndex(index).block());
+        template.indexOps(User.class).ensureIndex(TenantIndexes.emailIndex(false)).block();
+        Flux.fromStream(IntStream.range(0, 200).mapToObj(i -> User.builder()
+                        .name(String.format("Name %03d", i))
+                        .email(String.format("user-%03d@mail.com", i))
+                        .build()))
+                .concatWith(Flux.just(User.builder().name("Maxwell").email("maxwell@mail.com").build()))
+                .flatMap(template::insert)
+                .blockLast();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (client != null) {
+            client.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void testSearchQueryAppliesNameCollationOnlyForNamePrefix() {
+        Assertions.assertTrue(repository.searchQuery(new UserSearchRequest(null, null, "max", null), null).getCollation().isPresent());
+        Assertions.assertTrue(repository.searchQuery(new UserSearchRequest("maxwell@mail.com", "max", null, "well"), null).getCollation().isEmpty());
+        Assertions.assertEquals(new Document("deleted", false), repository.searchQuery(UserSearchRequest.ALL, null).getQueryObject());
+    }
+
+    @Test
+    void testNamePrefixPagesByNameThenId() {
+        String id = "5f1d7f1d7f1d7f1d7f1d7f1d";
+        Query byName = repository.searchQuery(new UserSearchRequest(null, null, "max", null), new UserCursor(id, "Maxim"));
+        Query byId = repository.searchQuery(UserSearchRequest.ALL, UserCursor.of(id));
+
+        Assertions.assertEquals(new Document("name", 1).append("id", 1), byName.getSortObject());
+        Assertions.assertEquals(new Document("$and", List.of(
+                new Document("deleted", false),
+                new Document("name", new Document("$gte", "max").append("$lt", "max\uffff")),
+                new Document("$and", List.of(
+                        new Document("name", new Document("$gte", "Maxim")),
+                        new Document("$nor", List.of(new Document("name", "Maxim").append("id", new Document("$lte", id)))))))),
+                byName.getQueryObject());
+        Assertions.assertEquals(new Document("id", 1), byId.getSortObject());
+        Assertions.assertEquals(new Document("$and", List.of(new Document("deleted", false), new Document("id", new Document("$gt", id)))),
+                byId.getQueryObject());
+    }
+
+    @Test
+    void testEmailFiltersUseEmailIndex() {
+        assertIndexScan(new UserSearchRequest("maxwell@mail.com", null, null, null), null, "email_live");
+        assertIndexScan(new UserSearchRequest(null, "maxw", null, null), null, "email_live");
+    }
+
+    @Test
+    void testNamePrefixUsesCollationAwareNameIndexWithoutBlockingSort() {
+        UserSearchRequest search = new UserSearchRequest(null, null, "MAX", null);
+
+        assertNoBlockingSort(assertIndexScan(search, null, "name_ci_id_live"));
+        assertNoBlockingSort(assertIndexScan(search, new UserCursor("5f1d7f1d7f1d7f1d7f1d7f1d", "Maxwell"), "name_ci_id_live"));
+    }
+
+    @Test
+    void testNameContainsAndUnfilteredPagesWalkIdIndex() {
+        assertNoBlockingSort(assertIndexScan(new UserSearchRequest(null, null, null, "xwel"), null, "_id_"));
+        assertNoBlockingSort(assertIndexScan(UserSearchRequest.ALL, null, "_id_"));
+    }
+
+    private List<Document> assertIndexScan(UserSearchRequest search, UserCursor after, String index) {
+        Assumptions.assumeTrue(template != null, () -> "Embedded MongoDB could not be started: " + unavailable);
+
+        Document plan = explain(repository.searchQuery(search, after));
+        List<Document> stages = new ArrayList<>();
+        collectStages(plan.get("queryPlan", plan), stages);
+
+        Assertions.assertTrue(stages.stream().noneMatch(stage -> "COLLSCAN".equals(stage.getString("stage"))), plan.toJson());
+        Assertions.assertTrue(stages.stream().anyMatch(stage -> "IXSCAN".equals(stage.getString("stage"))
+                && index.equals(stage.getString("indexName"))), plan.toJson());
+        return stages;
+    }
+
+    private void assertNoBlockingSort(List<Document> stages) {
+        Assertions.assertTrue(stages.stream().noneMatch(stage -> "SORT".equals(stage.getString("stage"))), stages.toString());
+    }
+
+    private Document explain(Query query) {
+        MongoPersistentEntity<?> entity = template.getConverter().getMappingContext().getRequiredPersistentEntity(User.class);
+        QueryMapper mapper = new QueryMapper(template.getConverter());
+        Document find = new Document("find", template.getCollectionName(User.class))
+                .append("filter", mapper.getMappedObject(query.getQueryObject(), entity))
+                .append("sort", mapper.getMappedSort(query.getSortObject(), entity));
+        query.getCollation().ifPresent(collation -> find.append("collation", collation.toDocument()));
+
+        Document explain = template.executeCommand(new Document("explain", find).append("verbosity", "queryPlanner")).block();
+        return explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+    }
+
+    private void collectStages(Document stage, List<Document> stages) {
+        stages.add(stage);
+        if (stage.get("inputStage") instanceof Document input) {
+            collectStages(input, stages);
+        }
+        if (stage.get("inputStages") instanceof List<?> inputs) {
+            inputs.forEach(input -> collectStages((Document) input, stages));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.maxwellponte.webfluxconcepts.repositories;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserMetrics;
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserShardKeyTest {
+
+    private final ReactiveMongoTemplate template = mock(ReactiveMongoTemplate.class);
+
+    @Test
+    void testIndexIsHashedId() {
+        Assertions.assertEquals(new Document("_id", "hashed"), new UserShardKey(template, properties()).index());
+    }
+
+    @Test
+    void testUnprefixedUniqueIndexesBlockSharding() {
+        ReactiveIndexOperations indexOps = mock(ReactiveIndexOperations.class);
+        when(template.indexOps(User.class)).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(Flux.just(
+                new IndexInfo(List.of(IndexField.create("_id", Sort.Direction.ASC)), "_id_", true, false, null),
+                new IndexInfo(List.of(IndexField.create("email", Sort.Direction.ASC)), User.EMAIL_INDEX, true, false, null),
+                new IndexInfo(List.of(IndexField.create("name", Sort.Direction.ASC), IndexField.create("_id", Sort.Direction.ASC)),
+                        "name_ci_id_live", false, false, null)));
+
+        StepVerifier.create(new UserShardKey(template, properties()).unprefixedUniqueIndexes())
+                .expectNext(User.EMAIL_INDEX)
+                .verifyComplete();
+    }
+
+    @Test
+    void testEmailIndexIsUniqueOnlyWhenUnsharded() {
+        Assertions.assertTrue(TenantIndexes.emailIndex(false).getIndexOptions().getBoolean("unique", false));
+        Assertions.assertFalse(TenantIndexes.emailIndex(true).getIndexOptions().getBoolean("unique", false));
+    }
+
+    @Test
+    void testFindAndModifyIsTargetedByIdWithoutLookup() {
+        UserProperties properties = properties();
+        MongoReadRouting routing = new MongoReadRouting(template, properties, null);
+        UserRepository repository = new UserRepository(template, new UserMetrics(new SimpleMeterRegistry(), properties),
+                new MongoResilience(properties, new SimpleMeterRegistry()), routing,
+                new UserEventRepository(template, routing, properties));
+        when(template.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(UserResponse.class), any()))
+                .thenReturn(Mono.just(new UserResponse("1", "joana", "joana@mail.com")));
+
+        StepVerifier.create(repository.findAndModify("1", 3L, User.builder().name("joana").email("joana@mail.com").build()))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(template).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class), eq(UserResponse.class), any());
+        Assertions.assertEquals(new Document("id", "1").append("deleted", false).append("version", 3L), query.getValue().getQueryObject());
+        verify(template, never()).findOne(any(Query.class), eq(User.class));
+    }
+
+    private UserProperties properties() {
+        UserProperties properties = new UserProperties();
+        properties.getSharding().setEnabled(true);
+        return properties;
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.TimeUnit;
+
+class PasswordHasherTest {
+
+    static PasswordHasher fastHasher() {
+        UserProperties properties = new UserProperties();
+        properties.getPassword().setStrength(4);
+        return new PasswordHasher(properties, new SimpleMeterRegistry());
+    }
+
+    static boolean matches(String password, String hash) {
+        return new BCryptPasswordEncoder().matches(password, hash);
+    }
+
+    @Test
+    void testHashOffEventLoop() {
+        PasswordHasher hasher = fastHasher();
+
+        StepVerifier.create(hasher.hash("123"))
+                .expectNextMatches(hash -> !hash.equals("123") && matches("123", hash))
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    void testLatencyIncludesQueueWait() {
+        UserProperties properties = new UserProperties();
+        properties.getPassword().setStrength(10);
+        properties.getPassword().setThreads(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHasher hasher = new PasswordHasher(properties, registry);
+
+        long start = System.nanoTime();
+        StepVerifier.create(Flux.range(0, 2).flatMap(i -> hasher.hash("123")))
+                .expectNextCount(2)
+                .expectComplete()
+                .verify();
+        long elapsed = System.nanoTime() - start;
+
+        Timer latency = registry.get("users.password.hash").timer();
+        Assertions.assertEquals(2, latency.count());
+        Assertions.assertTrue(latency.max(TimeUnit.NANOSECONDS) > 0.8 * elapsed, "the queued hash must include the wait for the first one");
+        hasher.shutdown();
+    }
+
+    @Test
+    void testHashRejectedWhenQueueIsFull() {
+        UserProperties properties = new UserProperties();
+        properties.getPassword().setStrength(12);
+        properties.getPassword().setThreads(1);
+        properties.getPassword().setQueueCapacity(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHasher hasher = new PasswordHasher(properties, registry);
+
+        StepVerifier.create(Flux.range(0, 3).flatMap(i -> hasher.hash("123")))
+                .expectError(ServiceUnavailableException.class)
+                .verify();
+
+        Assertions.assertEquals(1.0, registry.get("users.password.hash.rejected").counter().count());
+        hasher.shutdown();
+    }
+}
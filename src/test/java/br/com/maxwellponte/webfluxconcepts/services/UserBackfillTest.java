@@ -0,0 +1,86 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.Migration;
+import br.com.maxwellponte.webfluxconcepts.repositories.MigrationRepository;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantRegistry;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.AvailabilityState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserBackfillTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final MigrationRepository migrations = mock(MigrationRepository.class);
+    private final List<AvailabilityState> published = new ArrayList<>();
+    private final ApplicationEventPublisher publisher = event -> published.add(((AvailabilityChangeEvent<?>) event).getState());
+    private final UserBackfill backfill = new UserBackfill(repository, migrations, new TenantRegistry(new UserProperties()), publisher);
+
+    @BeforeEach
+    void setUp() {
+        when(migrations.isCompleted(anyString())).thenReturn(Mono.just(false));
+        when(migrations.save(any(Migration.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    }
+
+    @Test
+    void testReadinessIsRefusedUntilLegacyUsersAreBackfilled() {
+        Sinks.One<Long> deleted = Sinks.one();
+        when(repository.backfillVersions()).thenReturn(Mono.just(0L));
+        when(repository.backfillDeleted()).thenReturn(deleted.asMono());
+        when(repository.dropIndex(anyString())).thenReturn(Mono.just(false));
+
+        backfill.start();
+        backfill.readiness(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+
+        Assertions.assertFalse(backfill.isCompleted());
+        Assertions.assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC), published);
+
+        deleted.tryEmitValue(3L);
+
+        Assertions.assertTrue(backfill.isCompleted());
+        Assertions.assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC), published);
+        verify(migrations).save(any(Migration.class));
+    }
+
+    @Test
+    void testBackfillIsSkippedOnceRecorded() {
+        when(migrations.isCompleted(anyString())).thenReturn(Mono.just(true));
+
+        backfill.start();
+
+        Assertions.assertTrue(backfill.isCompleted());
+        verifyNoInteractions(repository);
+        verify(migrations, never()).save(any(Migration.class));
+    }
+
+    @Test
+    void testReadinessStaysRefusedWhenBackfillFails() {
+        when(repository.backfillVersions()).thenReturn(Mono.error(new IllegalStateException("unreachable")));
+        when(repository.backfillDeleted()).thenReturn(Mono.just(0L));
+
+        backfill.start();
+        backfill.readiness(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+
+        Assertions.assertFalse(backfill.isCompleted());
+        Assertions.assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC), published);
+        verify(migrations, never()).save(any(Migration.class));
+    }
+}
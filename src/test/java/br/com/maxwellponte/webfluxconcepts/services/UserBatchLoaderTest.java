@@ -0,0 +1,205 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+class UserBatchLoaderTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private UserBatchLoader loader;
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLoadCoalescesIdsIntoOneQuery() {
+        loader = new UserBatchLoader(repository, properties(Duration.ofMillis(50), 100), registry);
+        when(repository.findResponsesByIds(any())).thenReturn(Flux.just(
+                new UserResponse("1", "maxwell", null),
+                new UserResponse("2", "joana", null)));
+
+        List<UserResponse> results = Flux.merge(loader.load("1"), loader.load("2"), loader.load("3"), loader.load("1"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(3, results.size());
+        ArgumentCaptor<Collection<String>> ids = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(repository, times(1)).findResponsesByIds(ids.capture());
+        Assertions.assertEquals(Set.of("1", "2", "3"), Set.copyOf(ids.getValue()));
+        Assertions.assertEquals(3.0, registry.get("users.batch.size").summary().totalAmount());
+        Assertions.assertEquals(4, registry.get("users.batch.wait").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLoadQueriesEachTenantSeparately() {
+        loader = new UserBatchLoader(repository, properties(Duration.ofMillis(50), 100), registry);
+        when(repository.findResponsesByIds(any())).thenAnswer(invocation -> Flux.deferContextual(context ->
+                Flux.fromIterable(invocation.<Collection<String>>getArgument(0))
+                        .map(id -> new UserResponse(id, TenantContext.current(context), null))));
+
+        List<UserResponse> results = Flux.merge(loader.load("1"),
+                        loader.load("2").contextWrite(context -> TenantContext.with(context, "acme")))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(Set.of(new UserResponse("1", TenantContext.DEFAULT, null), new UserResponse("2", "acme", null)),
+                Set.copyOf(results));
+        Mockito.verify(repository, times(2)).findResponsesByIds(any());
+    }
+
+    @Test
+    void testCacheMissLoadsFromCallersTenant() {
+        loader = new UserBatchLoader(repository, properties(Duration.ofMillis(10), 100), registry);
+        UserCache cache = new UserCache(new UserProperties(), registry);
+        when(repository.findResponsesByIds(any())).thenAnswer(invocation -> Flux.deferContextual(context ->
+                Flux.fromIterable(invocation.<Collection<String>>getArgument(0))
+                        .map(id -> new UserResponse(id, TenantContext.current(context), null))));
+
+        StepVerifier.create(Mono.deferContextual(context -> cache.get(TenantContext.current(context), "1", loader::load))
+                        .contextWrite(context -> TenantContext.with(context, "acme")))
+                .expectNext(new UserResponse("1", "acme", null))
+                .verifyComplete();
+        StepVerifier.create(cache.get(TenantContext.DEFAULT, "1", loader::load))
+                .expectNext(new UserResponse("1", TenantContext.DEFAULT, null))
+                .verifyComplete();
+    }
+
+    @Test
+    void testCacheMissLoadsFromCallersTenantWhenBatchingIsDisabled() {
+        UserProperties properties = properties(Duration.ofMillis(10), 100);
+        properties.getBatch().setEnabled(false);
+        loader = new UserBatchLoader(repository, properties, registry);
+        UserCache cache = new UserCache(new UserProperties(), registry);
+        when(repository.findResponseById("1")).thenReturn(Mono.deferContextual(context ->
+                Mono.just(new UserResponse("1", TenantContext.current(context), null))));
+
+        StepVerifier.create(cache.get("acme", "1", loader::load))
+                .expectNext(new UserResponse("1", "acme", null))
+                .verifyComplete();
+    }
+
+    @Test
+    void testLoadDispatchesWhenBatchIsFull() {
+        loader = new UserBatchLoader(repository, properties(Duration.ofMinutes(1), 2), registry);
+        when(repository.findResponsesByIds(any())).thenReturn(Flux.just(new UserResponse("1", null, null)));
+
+        StepVerifier.create(Flux.merge(loader.load("1"), loader.load("2")))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testLoadSurvivesWindowsClosingWhileEveryDispatchSlotIsBusy() {
+        UserProperties properties = properties(Duration.ofMillis(5), 2);
+        properties.getBatch().setConcurrency(1);
+        loader = new UserBatchLoader(repository, properties, registry);
+        when(repository.findResponsesByIds(any())).thenAnswer(invocation -> Flux.fromIterable(invocation.<Collection<String>>getArgument(0))
+                .map(id -> new UserResponse(id, null, null))
+                .delaySubscription(Duration.ofMillis(50)));
+
+        List<UserResponse> results = Flux.range(0, 20)
+                .delayElements(Duration.ofMillis(8))
+                .flatMap(i -> loader.load(String.valueOf(i)))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        Assertions.assertEquals(20, results.size());
+    }
+
+    @Test
+    void testLoadFallsThroughToDirectLookupWhenQueueIsFull() {
+        UserProperties properties = properties(Duration.ofMinutes(1), 1);
+        properties.getBatch().setConcurrency(1);
+        properties.getBatch().setMaxPending(1);
+        loader = new UserBatchLoader(repository, properties, registry);
+        when(repository.findResponsesByIds(any())).thenReturn(Flux.never());
+        when(repository.findResponseById(anyString())).thenAnswer(invocation -> Mono.just(new UserResponse(invocation.getArgument(0), null, null)));
+
+        List<UserResponse> results = Flux.merge(Flux.range(0, 20).map(i -> loader.load(String.valueOf(i))))
+                .take(10)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(10, results.size());
+        Assertions.assertTrue(registry.get("users.batch.overflow").counter().count() >= 10);
+    }
+
+    @Test
+    void testLoadFailsWaitersOnceShutDown() {
+        loader = new UserBatchLoader(repository, properties(Duration.ofMinutes(1), 100), registry);
+        Mono<UserResponse> waiting = loader.load("1");
+        StepVerifier.create(waiting)
+                .then(loader::shutdown)
+                .expectError(ServiceUnavailableException.class)
+                .verify(Duration.ofSeconds(5));
+
+        StepVerifier.create(loader.load("2"))
+                .expectError(ServiceUnavailableException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testLoadPropagatesRepositoryErrorsToEveryWaiter() {
+        loader = new UserBatchLoader(repository, properties(Duration.ofMillis(10), 100), registry);
+        when(repository.findResponsesByIds(any())).thenReturn(Flux.error(new IllegalStateException("down")), Flux.just(new UserResponse("2", null, null)));
+
+        StepVerifier.create(loader.load("1"))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(loader.load("2"))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testLoadBypassesBatchingWhenDisabled() {
+        UserProperties properties = properties(Duration.ofMillis(10), 100);
+        properties.getBatch().setEnabled(false);
+        loader = new UserBatchLoader(repository, properties, registry);
+        when(repository.findResponseById("1")).thenReturn(Mono.just(new UserResponse("1", null, null)));
+
+        StepVerifier.create(loader.load("1"))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(repository, times(0)).findResponsesByIds(any());
+    }
+
+    private UserProperties properties(Duration window, int maxSize) {
+        UserProperties properties = new UserProperties();
+        properties.getBatch().setWindow(window);
+        properties.getBatch().setMaxSize(maxSize);
+        return properties;
+    }
+}
@@ -0,0 +1,188 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.ResumeToken;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.repositories.ResumeTokenRepository;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantContext;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantRegistry;
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Objects;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheSynchronizerTest {
+
+    private static final String ID = new ObjectId().toHexString();
+
+    @Mock
+    private ReactiveMongoTemplate template;
+    @Mock
+    private ResumeTokenRepository tokens;
+    @Spy
+    private UserProperties properties = tenancy();
+    @Spy
+    private TenantRegistry tenants = new TenantRegistry(tenancy());
+    @Spy
+    private UserCache cache = new UserCache(new UserProperties(), new SimpleMeterRegistry());
+
+    @InjectMocks
+    private UserCacheSynchronizer synchronizer;
+
+    @Test
+    void testApplyUpdateRefreshesCachedUser() {
+        cache.put(new UserResponse(ID, "maxwell", null));
+
+        synchronizer.apply(TenantContext.DEFAULT, event(OperationType.UPDATE, new UserResponse(ID, "joana", null)));
+
+        StepVerifier.create(cache.get(ID, id -> Mono.error(new IllegalStateException())))
+                .expectNextMatches(user -> Objects.equals(user.name(), "joana"))
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    void testApplyDeleteInvalidatesCachedUser() {
+        cache.put(new UserResponse(ID, null, null));
+
+        synchronizer.apply(TenantContext.DEFAULT, event(OperationType.DELETE, null));
+
+        StepVerifier.create(cache.get(ID, id -> Mono.empty()))
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    void testApplySoftDeleteInvalidatesCachedUser() {
+        cache.put(new UserResponse(ID, "maxwell", null));
+
+        synchronizer.apply(TenantContext.DEFAULT, event(OperationType.UPDATE, new UserResponse(ID, "maxwell", null), new Document("deleted", true)));
+
+        StepVerifier.create(cache.get(ID, id -> Mono.empty()))
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    void testFlushTokenPersistsLatestTokenOnce() {
+        when(tokens.save(any(ResumeToken.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        synchronizer.apply(TenantContext.DEFAULT, event(OperationType.INSERT, new UserResponse(ID, null, null)));
+
+        StepVerifier.create(synchronizer.flushToken(TenantContext.DEFAULT))
+                .expectNextMatches(token -> token.getToken().contains("resume-token"))
+                .expectComplete()
+                .verify();
+        StepVerifier.create(synchronizer.flushToken(TenantContext.DEFAULT))
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(tokens, times(1)).save(any(ResumeToken.class));
+    }
+
+    @Test
+    void testDisconnectedDropsCacheAndLostResumeToken() {
+        cache.put(new UserResponse(ID, null, null));
+        synchronizer.apply(TenantContext.DEFAULT, event(OperationType.INSERT, new UserResponse(ID, null, null)));
+
+        synchronizer.disconnected(TenantContext.DEFAULT, new MongoCommandException(new BsonDocument("code", new BsonInt32(286))
+                .append("errmsg", new BsonString("history lost")), new ServerAddress()));
+
+        StepVerifier.create(cache.get(ID, id -> Mono.empty()))
+                .expectComplete()
+                .verify();
+        StepVerifier.create(synchronizer.flushToken(TenantContext.DEFAULT))
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    void testTenantEventsOnlyTouchTheirOwnEntries() {
+        cache.put(new UserResponse(ID, "maxwell", null));
+        cache.put("acme", new UserResponse(ID, "maxwell", null));
+
+        synchronizer.apply("acme", event(OperationType.UPDATE, new UserResponse(ID, "joana", null)));
+
+        StepVerifier.create(cache.get("acme", ID, id -> Mono.error(new IllegalStateException())))
+                .expectNextMatches(user -> Objects.equals(user.name(), "joana"))
+                .expectComplete()
+                .verify();
+        StepVerifier.create(cache.get(ID, id -> Mono.error(new IllegalStateException())))
+                .expectNextMatches(user -> Objects.equals(user.name(), "maxwell"))
+                .expectComplete()
+                .verify();
+
+        synchronizer.disconnected("acme", new IllegalStateException("closed"));
+
+        StepVerifier.create(cache.get("acme", ID, id -> Mono.empty()))
+                .expectComplete()
+                .verify();
+        StepVerifier.create(cache.get(ID, id -> Mono.error(new IllegalStateException())))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    void testLongTtlOnlyOnceEveryTenantStreamIsConnected() {
+        synchronizer.connected(TenantContext.DEFAULT);
+
+        Mockito.verify(cache, never()).expireAfterWrite(properties.getCache().getChangeStream().getTtl());
+
+        synchronizer.connected("acme");
+
+        Mockito.verify(cache).expireAfterWrite(properties.getCache().getChangeStream().getTtl());
+    }
+
+    private static UserProperties tenancy() {
+        UserProperties properties = new UserProperties();
+        properties.getTenancy().setEnabled(true);
+        properties.getTenancy().setTenants(List.of("acme"));
+        return properties;
+    }
+
+    private ChangeStreamEvent<UserResponse> event(OperationType type, UserResponse body) {
+        return event(type, body, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChangeStreamEvent<UserResponse> event(OperationType type, UserResponse body, Document fullDocument) {
+        ChangeStreamEvent<UserResponse> event = mock(ChangeStreamEvent.class);
+        ChangeStreamDocument<Document> raw = new ChangeStreamDocument<>(type.getValue(), null, null, null, fullDocument, null,
+                new BsonDocument("_id", new BsonObjectId(new ObjectId(ID))), null, null, null, null, null, null);
+
+        when(event.getOperationType()).thenReturn(type);
+        when(event.getResumeToken()).thenReturn(new BsonDocument("_data", new BsonString("resume-token")));
+        Mockito.lenient().when(event.getBody()).thenReturn(body);
+        Mockito.lenient().when(event.getRaw()).thenReturn(raw);
+        return event;
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+class UserCacheTest {
+
+    private final UserCache cache = new UserCache(new UserProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void testAbandonedLoadIsNotCached() {
+        StepVerifier.create(cache.get("1", id -> Mono.never()).timeout(Duration.ofMillis(20)))
+                .expectError()
+                .verify(Duration.ofSeconds(1));
+
+        StepVerifier.create(cache.get("1", id -> Mono.just(new UserResponse(id, "maxwell", null))))
+                .expectNextMatches(user -> "maxwell".equals(user.name()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        StepVerifier.create(cache.get("1", id -> Mono.error(new IllegalStateException("down"))))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(1));
+
+        StepVerifier.create(cache.get("1", id -> Mono.just(new UserResponse(id, "maxwell", null))))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserSearchRequest;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+class UserCountCacheTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final UserCountCache cache = new UserCountCache(repository, new UserProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void testUnfilteredCountUsesEstimateAndIsCached() {
+        when(repository.estimatedCount()).thenReturn(Mono.just(10L));
+
+        cache.get(UserSearchRequest.ALL, false).block();
+        StepVerifier.create(cache.get(new UserSearchRequest("", null, null, null), false))
+                .expectNext(10L)
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(repository, times(1)).estimatedCount();
+        Mockito.verify(repository, times(0)).count(any());
+    }
+
+    @Test
+    void testFilteredCountIsAlwaysExact() {
+        UserSearchRequest search = new UserSearchRequest(null, "max", null, null);
+        when(repository.count(any())).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(cache.get(search, false))
+                .expectNext(3L)
+                .expectComplete()
+                .verify();
+        cache.get(search, true).block();
+
+        Mockito.verify(repository, times(1)).count(search);
+        Mockito.verify(repository, times(0)).estimatedCount();
+    }
+}
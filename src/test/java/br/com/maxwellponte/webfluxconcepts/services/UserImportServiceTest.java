@@ -0,0 +1,124 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserMetrics;
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.mappers.UserMapper;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserRequest;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserRepository repository;
+    @Spy
+    private UserMapper mapper = Mappers.getMapper(UserMapper.class);
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    @Spy
+    private UserProperties properties = new UserProperties();
+    @Spy
+    private PasswordHasher passwordHasher = PasswordHasherTest.fastHasher();
+    @Spy
+    private UserMetrics metrics = new UserMetrics(new SimpleMeterRegistry(), new UserProperties());
+
+    @InjectMocks
+    private UserImportService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.getBulk().setChunkSize(2);
+    }
+
+    @Test
+    void testImportAll() {
+        when(repository.insertUnordered(anyList())).thenAnswer(inv -> {
+            List<User> users = inv.getArgument(0);
+            users.forEach(user -> {
+                Assertions.assertTrue(PasswordHasherTest.matches("123", user.getPassword()));
+                user.setId(user.getEmail());
+            });
+            return Mono.just(Map.of());
+        });
+
+        Flux<UserRequest> requests = Flux.just(
+                new UserRequest("maxwell", "maxwell@mail.com", "123"),
+                new UserRequest("ponte", "ponte@mail.com", "123"),
+                new UserRequest("joana", "joana@mail.com", "123"));
+
+        StepVerifier.create(service.importAll(requests))
+                .expectNextMatches(result -> result.index() == 0 && result.status() == 201 && Objects.equals(result.id(), "maxwell@mail.com"))
+                .expectNextMatches(result -> result.index() == 1 && result.status() == 201)
+                .expectNextMatches(result -> result.index() == 2 && result.status() == 201)
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(repository, times(2)).insertUnordered(anyList());
+    }
+
+    @Test
+    void testImportAllWithFailures() {
+        BulkWriteError duplicate = new BulkWriteError(11000,
+                "E11000 duplicate key error collection: webflux-concepts.user index: email_live dup key: { email: \"ponte@mail.com\" }",
+                new BsonDocument(), 0);
+        when(repository.insertUnordered(anyList())).thenReturn(Mono.just(Map.of(0, duplicate)));
+
+        Flux<UserRequest> requests = Flux.just(
+                new UserRequest("maxwell ", "maxwell@mail.com", "123"),
+                new UserRequest("ponte", "ponte@mail.com", "123"));
+
+        StepVerifier.create(service.importAll(requests))
+                .expectNextMatches(result -> result.index() == 0 && result.status() == 400
+                        && Objects.equals(result.message(), "name: field cannot have blank spaces at the beginning or at end"))
+                .expectNextMatches(result -> result.index() == 1 && result.status() == 400
+                        && Objects.equals(result.message(), "Email already registered"))
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(repository, times(1)).insertUnordered(anyList());
+    }
+
+    @Test
+    void testImportAllFlushesPartialChunkWhenInputStalls() {
+        properties.getBulk().setChunkTimeout(Duration.ofMillis(50));
+        when(repository.insertUnordered(anyList())).thenReturn(Mono.just(Map.of()));
+
+        Flux<UserRequest> requests = Flux.just(new UserRequest("maxwell", "maxwell@mail.com", "123"))
+                .concatWith(Flux.never());
+
+        StepVerifier.create(service.importAll(requests))
+                .expectNextMatches(result -> result.index() == 0 && result.status() == 201)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        Mockito.verify(repository, times(1)).insertUnordered(anyList());
+    }
+}
@@ -1,25 +1,44 @@
 package br.com.maxwellponte.webfluxconcepts.services;
 
+import br.com.maxwellponte.webfluxconcepts.config.UserMetrics;
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
 import br.com.maxwellponte.webfluxconcepts.entities.User;
 import br.com.maxwellponte.webfluxconcepts.mappers.UserMapper;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserCursor;
 import br.com.maxwellponte.webfluxconcepts.models.requests.UserRequest;
+import br.com.maxwellponte.webfluxconcepts.models.requests.UserSearchRequest;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserPageResponse;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.repositories.ReadConsistency;
 import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.BadRequestException;
 import br.com.maxwellponte.webfluxconcepts.services.exceptions.ObjectNotFoundException;
+import br.com.maxwellponte.webfluxconcepts.services.exceptions.PreconditionFailedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
@@ -30,6 +49,22 @@ class UserServiceTest {
     private UserRepository repository;
     @Mock
     private UserMapper mapper;
+    @Mock
+    private UserBatchLoader batchLoader;
+    @Mock
+    private UserCountCache countCache;
+    @Mock
+    private UserWriteBehind writeBehind;
+    @Spy
+    private UserProperties properties = new UserProperties();
+    @Spy
+    private UserCache cache = new UserCache(new UserProperties(), new SimpleMeterRegistry());
+    @Spy
+    private PasswordHasher passwordHasher = PasswordHasherTest.fastHasher();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    @Spy
+    private UserMetrics metrics = new UserMetrics(registry, new UserProperties());
 
     @InjectMocks
     private UserService service;
@@ -42,6 +77,7 @@ class UserServiceTest {
 
         when(mapper.toEntity(any(UserRequest.class))).thenReturn(entity);
         when(repository.save(any(User.class))).thenReturn(Mono.just(User.builder().build()));
+        when(mapper.toResponse(any(User.class))).thenReturn(new UserResponse(null, null, null));
 
         Mono<User> result = service.save(request);
 
@@ -52,59 +88,298 @@ class UserServiceTest {
                 .verify();
 
         Mockito.verify(repository, times(1)).save(any(User.class));
+        Assertions.assertNotEquals("123", entity.getPassword());
+        Assertions.assertTrue(PasswordHasherTest.matches("123", entity.getPassword()));
     }
 
     @Test
-    void testFindById(){
-        when(repository.findById(anyString())).thenReturn(Mono.just(User.builder().id("1234").build()));
+    void testFindResponseByIdAfterWriteReadsRepository(){
+        String token = Base64.getUrlEncoder().encodeToString("{\"operationTime\": {\"$timestamp\": {\"t\": 1, \"i\": 1}}}".getBytes(StandardCharsets.UTF_8));
+        when(repository.findResponseById(anyString())).thenReturn(Mono.just(new UserResponse("1234", "maxwell", null)));
 
-        Mono<User> result = service.findById("1234");
+        Mono<UserResponse> result = service.findResponseById("1234")
+                .contextWrite(context -> ReadConsistency.with(context, ReadConsistency.from(token)));
 
         StepVerifier.create(result)
-                .expectNextMatches(user -> user.getClass() == User.class
-                && Objects.equals(user.getId(), "1234"))
+                .expectNextMatches(user -> Objects.equals(user.id(), "1234"))
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(repository, times(1)).findResponseById("1234");
+        Mockito.verify(batchLoader, never()).load(anyString());
+    }
+
+    @Test
+    void testFindResponseByIdFromCache(){
+        when(batchLoader.load(anyString())).thenReturn(Mono.just(new UserResponse("1234", null, null)).delayElement(Duration.ofMillis(50)));
+
+        Mono.zip(service.findResponseById("1234"), service.findResponseById("1234")).block();
+
+        StepVerifier.create(service.findResponseById("1234"))
+                .expectNextMatches(user -> Objects.equals(user.id(), "1234"))
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(batchLoader, times(1)).load(anyString());
+        Mockito.verify(repository, times(0)).findResponseById(anyString());
+    }
+
+    @Test
+    void testFindResponseByIdNotFoundFromCache(){
+        when(batchLoader.load(anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.findResponseById("1234"))
+                .expectError(ObjectNotFoundException.class)
+                .verify();
+        StepVerifier.create(service.findResponseById("1234"))
+                .expectError(ObjectNotFoundException.class)
+                .verify();
+
+        Mockito.verify(batchLoader, times(1)).load(anyString());
+    }
+
+    @Test
+    void testFindAllById(){
+        when(repository.findResponsesByIds(any())).thenReturn(Flux.just(new UserResponse("2", "joana", null)));
+
+        StepVerifier.create(service.findAllById(List.of("1", "2", "1")))
+                .expectNextMatches(result -> result.status() == 200 && Objects.equals(result.user().name(), "joana"))
+                .expectNextMatches(result -> result.status() == 404 && Objects.equals(result.id(), "1") && result.user() == null)
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(repository, times(1)).findResponsesByIds(Set.of("1", "2"));
+    }
+
+    @Test
+    void testFindAllByIdAboveLimit(){
+        properties.getBatchGet().setMaxIds(1);
+
+        StepVerifier.create(service.findAllById(List.of("1", "2")))
+                .expectError(BadRequestException.class)
+                .verify();
+
+        Mockito.verify(repository, times(0)).findResponsesByIds(any());
+    }
+
+    @Test
+    void testCount(){
+        UserSearchRequest search = new UserSearchRequest(null, null, "max", null);
+        when(countCache.get(any(), Mockito.anyBoolean())).thenReturn(Mono.just(42L));
+
+        StepVerifier.create(service.count(UserSearchRequest.ALL, false))
+                .expectNextMatches(count -> count.count() == 42L && !count.exact())
+                .expectComplete()
+                .verify();
+        StepVerifier.create(service.count(search, false))
+                .expectNextMatches(count -> count.count() == 42L && count.exact())
                 .expectComplete()
                 .verify();
 
-        Mockito.verify(repository, times(1)).findById(anyString());
+        Mockito.verify(countCache, times(1)).get(search, false);
     }
 
     @Test
-    void testFindAll(){
-        when(repository.findAll()).thenReturn(Flux.just(User.builder().build()));
+    void testFindPage(){
+        String first = new ObjectId().toHexString();
+        String second = new ObjectId().toHexString();
+        String third = new ObjectId().toHexString();
+        when(repository.findPage(any(), any(), anyInt())).thenReturn(Flux.just(
+                new UserResponse(first, null, null),
+                new UserResponse(second, null, null),
+                new UserResponse(third, null, null)));
 
-        Flux<User> result = service.findAll();
+        Mono<UserPageResponse> result = service.findPage(UserSearchRequest.ALL, UserService.encodeCursor(first), 2);
 
         StepVerifier.create(result)
-                .expectNextMatches(user -> user.getClass() == User.class)
+                .expectNextMatches(page -> page.content().size() == 2
+                        && Objects.equals(page.content().get(1).id(), second)
+                        && Objects.equals(UserService.decodeCursor(page.next()), UserCursor.of(second)))
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(repository, times(1)).findPage(UserSearchRequest.ALL, UserCursor.of(first), 3);
+    }
+
+    @Test
+    void testFindPageByNameCarriesNameInCursor(){
+        UserSearchRequest search = new UserSearchRequest(null, null, "max", null);
+        String first = new ObjectId().toHexString();
+        String second = new ObjectId().toHexString();
+        UserCursor after = new UserCursor(new ObjectId().toHexString(), "Maxima");
+        when(repository.findPage(any(), any(), anyInt())).thenReturn(Flux.just(
+                new UserResponse(first, "Maxim", null),
+                new UserResponse(second, "Maxwell", null)));
+
+        StepVerifier.create(service.findPage(search, UserService.encodeCursor(after), 1))
+                .expectNextMatches(page -> Objects.equals(UserService.decodeCursor(page.next()), new UserCursor(first, "Maxim")))
+                .expectComplete()
+                .verify();
+        StepVerifier.create(service.findPage(search, UserService.encodeCursor(first), 1))
+                .expectError(BadRequestException.class)
+                .verify();
+
+        Mockito.verify(repository, times(1)).findPage(search, after, 2);
+    }
+
+    @Test
+    void testFindPageLastPage(){
+        when(repository.findPage(any(), any(), anyInt())).thenReturn(Flux.just(new UserResponse(new ObjectId().toHexString(), null, null)));
+
+        StepVerifier.create(service.findPage(UserSearchRequest.ALL, null, null))
+                .expectNextMatches(page -> page.content().size() == 1 && page.next() == null)
                 .expectComplete()
                 .verify();
 
-        Mockito.verify(repository, times(1)).findAll();
+        Mockito.verify(repository, times(1)).findPage(UserSearchRequest.ALL, null, properties.getPagination().getDefaultLimit() + 1);
+    }
+
+    @Test
+    void testFindPageWithInvalidParameters(){
+        StepVerifier.create(service.findPage(UserSearchRequest.ALL, "not-a-cursor", null))
+                .expectError(BadRequestException.class)
+                .verify();
+
+        StepVerifier.create(service.findPage(UserSearchRequest.ALL, null, properties.getPagination().getMaxLimit() + 1))
+                .expectError(BadRequestException.class)
+                .verify();
+
+        Mockito.verify(repository, times(0)).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void testStream(){
+        String after = new ObjectId().toHexString();
+        when(repository.findAllAfter(any(), any(), anyInt())).thenReturn(Flux.just(new UserResponse(null, null, null), new UserResponse(null, null, null)));
+
+        StepVerifier.create(service.stream(UserSearchRequest.ALL, UserService.encodeCursor(after)))
+                .expectNextCount(2)
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(repository, times(1)).findAllAfter(UserSearchRequest.ALL, UserCursor.of(after), properties.getPagination().getStreamBatchSize());
+    }
+
+    @Test
+    void testExportResumesFromRawIdOrCursor(){
+        String after = new ObjectId().toHexString();
+        when(repository.findAllAfter(any(), any(), anyInt())).thenReturn(Flux.just(new UserResponse(null, null, null)));
+
+        StepVerifier.create(service.export(after))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify();
+        StepVerifier.create(service.export(UserService.encodeCursor(after)))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(repository, times(2)).findAllAfter(UserSearchRequest.ALL, UserCursor.of(after), properties.getPagination().getStreamBatchSize());
     }
 
     @Test
     void testUpdate() {
-        UserRequest request = new UserRequest("maxwell", "maxwell@mail.com", "123");
-        User entity = User.builder().build();
+        UserRequest request = new UserRequest("maxwell", null, "123");
+        User changes = User.builder().name("maxwell").build();
 
-        when(mapper.toEntity(any(UserRequest.class), any(User.class))).thenReturn(entity);
-        when(repository.findById(anyString())).thenReturn(Mono.just(entity));
-        when(repository.save(any(User.class))).thenReturn(Mono.just(entity));
+        when(mapper.toEntity(any(UserRequest.class))).thenReturn(changes);
+        when(repository.findAndModify(anyString(), any(), any(User.class))).thenReturn(Mono.just(new UserResponse("123", "maxwell", null, 1L)));
 
-        Mono<User> result = service.update("123", request);
+        StepVerifier.create(service.update("123", request, null))
+                .expectNextMatches(user -> Objects.equals(user.name(), "maxwell") && user.version() == 1L)
+                .expectComplete()
+                .verify();
 
-        StepVerifier.create(result)
-                .expectNextMatches(user -> user.getClass() == User.class)
+        Mockito.verify(repository, times(1)).findAndModify("123", null, changes);
+        Mockito.verify(repository, times(0)).findResponseById(anyString());
+        Mockito.verify(repository, times(0)).save(any(User.class));
+        Assertions.assertTrue(PasswordHasherTest.matches("123", changes.getPassword()));
+    }
+
+    @Test
+    void testUpdateNotFound() {
+        when(mapper.toEntity(any(UserRequest.class))).thenReturn(User.builder().build());
+        when(repository.findAndModify(anyString(), any(), any(User.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.update("1234", new UserRequest("joana", null, null), null))
+                .expectError(ObjectNotFoundException.class)
+                .verify();
+
+        Mockito.verify(repository, times(0)).exists(anyString());
+    }
+
+    @Test
+    void testUpdateRefreshesCache() {
+        when(batchLoader.load(anyString())).thenReturn(Mono.just(new UserResponse("1234", "maxwell", null, 0L)));
+        when(mapper.toEntity(any(UserRequest.class))).thenReturn(User.builder().name("joana").build());
+        when(repository.findAndModify(anyString(), any(), any(User.class))).thenReturn(Mono.just(new UserResponse("1234", "joana", null, 1L)));
+
+        service.findResponseById("1234").block();
+        service.update("1234", new UserRequest("joana", null, null), null).block();
+
+        StepVerifier.create(service.findResponseById("1234"))
+                .expectNextMatches(user -> Objects.equals(user.name(), "joana"))
                 .expectComplete()
+                .verify();
 
+        Mockito.verify(batchLoader, times(1)).load(anyString());
+    }
+
+    @Test
+    void testUpdateWithStaleIfMatch() {
+        UserRequest request = new UserRequest("joana", null, null);
+        when(mapper.toEntity(any(UserRequest.class))).thenReturn(User.builder().name("joana").build());
+        when(repository.findAndModify(anyString(), any(), any(User.class))).thenReturn(Mono.empty());
+        when(repository.exists(anyString())).thenReturn(Mono.just(true), Mono.just(false));
+
+        StepVerifier.create(service.update("1234", request, "\"1\""))
+                .expectError(PreconditionFailedException.class)
+                .verify();
+        StepVerifier.create(service.update("1234", request, "\"1\""))
+                .expectError(ObjectNotFoundException.class)
+                .verify();
+        StepVerifier.create(service.update("1234", request, "W/\"1\""))
+                .expectError(PreconditionFailedException.class)
                 .verify();
 
-        Mockito.verify(repository, times(1)).save(any(User.class));
+        Mockito.verify(repository, times(2)).findAndModify("1234", 1L, User.builder().name("joana").build());
+    }
+
+    @Test
+    void testDeleteInvalidatesCache(){
+        User entity = User.builder().id("1234").build();
+        when(batchLoader.load(anyString())).thenReturn(Mono.just(new UserResponse("1234", null, null)), Mono.empty());
+        when(repository.softDelete(anyString())).thenReturn(Mono.just(entity));
+
+        service.findResponseById("1234").block();
+        service.delete("1234").block();
+
+        StepVerifier.create(service.findResponseById("1234"))
+                .expectError(ObjectNotFoundException.class)
+                .verify();
+
+        Mockito.verify(batchLoader, times(2)).load(anyString());
     }
 
     @Test
     void testDelete(){
+        User entity = User.builder().build();
+        when(repository.softDelete(anyString())).thenReturn(Mono.just(entity));
+
+        Mono<User> result = service.delete("123");
+
+        StepVerifier.create(result)
+                .expectNextMatches(user -> user.getClass() == User.class)
+                .expectComplete()
+                .verify();
+
+        Mockito.verify(repository, times(1)).softDelete(anyString());
+        Mockito.verify(repository, never()).findAndRemove(anyString());
+    }
+
+    @Test
+    void testHardDelete(){
+        properties.getSoftDelete().setEnabled(false);
         User entity = User.builder().build();
         when(repository.findAndRemove(anyString())).thenReturn(Mono.just(entity));
 
@@ -119,12 +394,26 @@ class UserServiceTest {
         Mockito.verify(repository, times(1)).findAndRemove(anyString());
     }
 
+    @Test
+    void testMetricsTaggedByOperationAndOutcome(){
+        when(batchLoader.load(anyString())).thenReturn(Mono.just(new UserResponse("1234", null, null)), Mono.empty());
+
+        service.findResponseById("1234").block();
+        StepVerifier.create(service.findResponseById("4321"))
+                .expectError(ObjectNotFoundException.class)
+                .verify();
+
+        Assertions.assertEquals(1, registry.get(UserMetrics.SERVICE).tags("operation", "findResponseById", "outcome", "success").timer().count());
+        Assertions.assertEquals(1, registry.get(UserMetrics.SERVICE).tags("operation", "findResponseById", "outcome", "not_found").timer().count());
+        Assertions.assertEquals(1.0, registry.get("users.outcomes").tags("operation", "findResponseById", "outcome", "not_found").counter().count());
+    }
+
     @Test
     void testHandleNotFound(){
-        when(repository.findById(anyString())).thenReturn(Mono.empty());
+        when(batchLoader.load(anyString())).thenReturn(Mono.empty());
 
         try {
-            service.findById("123").block();
+            service.findResponseById("123").block();
         } catch (Exception ex) {
             Assertions.assertEquals(ObjectNotFoundException.class, ex.getClass());
             Assertions.assertEquals(String.format("Object not Found. Id: %s, type: %s", "123", User.class.getSimpleName()), ex.getMessage());
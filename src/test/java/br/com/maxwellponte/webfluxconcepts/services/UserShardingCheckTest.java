@@ -0,0 +1,61 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantIndexes;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantRegistry;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserShardKey;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserShardingCheckTest {
+
+    private final UserShardKey shardKey = mock(UserShardKey.class);
+    private final TenantIndexes indexes = mock(TenantIndexes.class);
+    private final UserShardingCheck check = new UserShardingCheck(shardKey, new TenantRegistry(new UserProperties()), indexes, new UserProperties());
+
+    @BeforeEach
+    void setUp() {
+        when(indexes.ensure(anyString())).thenReturn(Mono.empty());
+        when(shardKey.unprefixedUniqueIndexes()).thenReturn(Flux.empty());
+        when(shardKey.hasIndex()).thenReturn(Mono.just(true));
+        when(shardKey.index()).thenReturn(new Document("_id", "hashed"));
+    }
+
+    @Test
+    void testStartupFailsWhenDeployedKeyDiffers() {
+        when(shardKey.deployedKey()).thenReturn(Mono.just(new Document("email", "hashed")));
+
+        IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class, check::start);
+        Assertions.assertTrue(ex.getMessage().contains("{\"email\": \"hashed\"}"));
+    }
+
+    @Test
+    void testStartupFailsOnUniqueIndexNotPrefixedByShardKey() {
+        when(shardKey.unprefixedUniqueIndexes()).thenReturn(Flux.just("email_live"));
+        when(shardKey.deployedKey()).thenReturn(Mono.empty());
+
+        IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class, check::start);
+        Assertions.assertTrue(ex.getMessage().contains("[email_live]"));
+        verify(indexes, never()).ensure(anyString());
+    }
+
+    @Test
+    void testStartupContinuesWhenKeyMatchesOrCannotBeRead() {
+        when(shardKey.deployedKey()).thenReturn(Mono.just(new Document("_id", "hashed")));
+        Assertions.assertDoesNotThrow(check::start);
+
+        when(shardKey.deployedKey()).thenReturn(Mono.error(new DataAccessResourceFailureException("config.collections unavailable")));
+        Assertions.assertDoesNotThrow(check::start);
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.maxwellponte.webfluxconcepts.services;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.User;
+import br.com.maxwellponte.webfluxconcepts.models.responses.UserResponse;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserRepository.BulkUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.maxwellponte.webfluxconcepts.config.UserProperties.WriteBehind.Durability.BUFFERED;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+class UserWriteBehindTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private UserWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdatesToTheSameUserAreCoalescedIntoOneBulkWrite() {
+        writeBehind = writeBehind(properties(Duration.ofMillis(50), 100));
+        when(repository.updateAll(anyMap())).thenReturn(Mono.just(new BulkUpdate(List.of(new UserResponse("1", "joana", "joana@mail.com", 3L)), Map.of())));
+
+        List<UserResponse> results = Flux.merge(
+                        writeBehind.update("1", null, User.builder().name("jo").build()),
+                        writeBehind.update("1", null, User.builder().name("joana").build()),
+                        writeBehind.update("1", null, User.builder().email("joana@mail.com").build()))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(3, results.size());
+        results.forEach(user -> Assertions.assertEquals(3L, user.version()));
+        ArgumentCaptor<Map<String, User>> changes = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(repository, times(1)).updateAll(changes.capture());
+        Assertions.assertEquals("joana", changes.getValue().get("1").getName());
+        Assertions.assertEquals("joana@mail.com", changes.getValue().get("1").getEmail());
+        Assertions.assertEquals(2.0, registry.get("users.write_behind.coalesced").counter().count());
+        Assertions.assertEquals(0, writeBehind.pending());
+    }
+
+    @Test
+    void testBufferedDurabilityAcksBeforeFlushAndFlushesOnShutdown() {
+        UserProperties properties = properties(Duration.ofMinutes(1), 100);
+        properties.getWriteBehind().setDurability(BUFFERED);
+        writeBehind = writeBehind(properties);
+        when(repository.exists("1")).thenReturn(Mono.just(true));
+        when(repository.updateAll(anyMap())).thenReturn(Mono.just(new BulkUpdate(List.of(), Map.of())));
+
+        UserResponse acked = writeBehind.update("1", null, User.builder().name("joana").build()).block(Duration.ofSeconds(1));
+
+        Assertions.assertSame(UserWriteBehind.ACCEPTED, acked);
+        Assertions.assertEquals(1, writeBehind.pending());
+        Mockito.verify(repository, never()).updateAll(anyMap());
+
+        writeBehind.shutdown();
+
+        Mockito.verify(repository, times(1)).updateAll(anyMap());
+        Assertions.assertEquals(0, writeBehind.pending());
+    }
+
+    @Test
+    void testBufferedDurabilityDoesNotAcceptMissingUsers() {
+        UserProperties properties = properties(Duration.ofMinutes(1), 100);
+        properties.getWriteBehind().setDurability(BUFFERED);
+        writeBehind = writeBehind(properties);
+        when(repository.exists("1")).thenReturn(Mono.just(false));
+
+        Assertions.assertNull(writeBehind.update("1", null, User.builder().name("joana").build()).block(Duration.ofSeconds(1)));
+        Assertions.assertEquals(0, writeBehind.pending());
+    }
+
+    @Test
+    void testFullBufferWritesThrough() {
+        writeBehind = writeBehind(properties(Duration.ofMinutes(1), 0));
+        when(repository.findAndModify(eq("1"), isNull(), any(User.class))).thenReturn(Mono.just(new UserResponse("1", "joana", null, 1L)));
+
+        Assertions.assertEquals(1L, writeBehind.update("1", null, User.builder().name("joana").build()).block(Duration.ofSeconds(1)).version());
+
+        Mockito.verify(repository, never()).updateAll(anyMap());
+        Assertions.assertEquals(1.0, registry.get("users.write_behind.bypassed").counter().count());
+    }
+
+    @Test
+    void testVersionedUpdateFlushesPendingChangesFirst() {
+        UserProperties properties = properties(Duration.ofMinutes(1), 100);
+        properties.getWriteBehind().setDurability(BUFFERED);
+        writeBehind = writeBehind(properties);
+        when(repository.exists("1")).thenReturn(Mono.just(true));
+        when(repository.updateAll(anyMap())).thenReturn(Mono.just(new BulkUpdate(List.of(new UserResponse("1", "jo", null, 1L)), Map.of())));
+        when(repository.findAndModify(eq("1"), eq(1L), any(User.class))).thenReturn(Mono.just(new UserResponse("1", "joana", null, 2L)));
+
+        writeBehind.update("1", null, User.builder().name("jo").build()).block(Duration.ofSeconds(1));
+        UserResponse updated = writeBehind.update("1", 1L, User.builder().name("joana").build()).block(Duration.ofSeconds(1));
+
+        Assertions.assertEquals(2L, updated.version());
+        var order = Mockito.inOrder(repository);
+        order.verify(repository).updateAll(anyMap());
+        order.verify(repository).findAndModify(eq("1"), eq(1L), any(User.class));
+    }
+
+    @Test
+    void testFailedUpdateOnlyFailsItsOwnCaller() throws Exception {
+        UserProperties properties = properties(Duration.ofMillis(50), 100);
+        properties.getWriteBehind().setStripes(1);
+        writeBehind = writeBehind(properties);
+        when(repository.updateAll(anyMap())).thenReturn(Mono.just(new BulkUpdate(
+                List.of(new UserResponse("1", "joana", null, 1L)),
+                Map.of("2", new DuplicateKeyException("E11000 duplicate key error collection: webflux-concepts.user index: email_live dup key: { email: \"joana@mail.com\" }")))));
+
+        CompletableFuture<UserResponse> first = writeBehind.update("1", null, User.builder().name("joana").build()).toFuture();
+        CompletableFuture<UserResponse> second = writeBehind.update("2", null, User.builder().email("joana@mail.com").build()).toFuture();
+
+        Assertions.assertEquals(1L, first.get(5, TimeUnit.SECONDS).version());
+        ExecutionException failure = Assertions.assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(DuplicateKeyException.class, failure.getCause());
+        Mockito.verify(repository, times(1)).updateAll(anyMap());
+    }
+
+    private UserWriteBehind writeBehind(UserProperties properties) {
+        return new UserWriteBehind(repository, new UserCache(properties, registry), properties, registry);
+    }
+
+    private UserProperties properties(Duration window, int maxPending) {
+        UserProperties properties = new UserProperties();
+        properties.getWriteBehind().setEnabled(true);
+        properties.getWriteBehind().setWindow(window);
+        properties.getWriteBehind().setMaxPending(maxPending);
+        return properties;
+    }
+}
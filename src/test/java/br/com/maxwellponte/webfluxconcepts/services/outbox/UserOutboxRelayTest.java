@@ -0,0 +1,115 @@
+package br.com.maxwellponte.webfluxconcepts.services.outbox;
+
+import br.com.maxwellponte.webfluxconcepts.config.UserProperties;
+import br.com.maxwellponte.webfluxconcepts.entities.UserEvent;
+import br.com.maxwellponte.webfluxconcepts.repositories.TenantRegistry;
+import br.com.maxwellponte.webfluxconcepts.repositories.UserEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static br.com.maxwellponte.webfluxconcepts.entities.UserEvent.Type.CREATED;
+import static br.com.maxwellponte.webfluxconcepts.entities.UserEvent.Type.UPDATED;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserOutboxRelayTest {
+
+    private final UserEventRepository events = mock(UserEventRepository.class);
+    private final LocalUserEventSink sink = new LocalUserEventSink();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testRelayPublishesLeasedEventsInOrderAndMarksThemPublished() {
+        UserEvent created = UserEvent.of(CREATED, "1", 0L, "maxwell", "maxwell@mail.com");
+        UserEvent updated = UserEvent.of(UPDATED, "1", 1L, "joana", "maxwell@mail.com");
+        List<String> ids = List.of(created.getId(), updated.getId());
+        when(events.findPendingIds(any(), anyInt())).thenReturn(Flux.fromIterable(ids));
+        when(events.lease(eq(ids), eq("node-a"), any(), any())).thenReturn(Mono.just(2L));
+        when(events.findLeased(ids, "node-a")).thenReturn(Flux.just(created, updated));
+        when(events.markPublished(eq(ids), any())).thenReturn(Mono.just(2L));
+
+        UserOutboxRelay relay = relay(10);
+        StepVerifier.create(sink.events().take(2).collectList())
+                .then(() -> relay.drain().block(Duration.ofSeconds(5)))
+                .expectNext(List.of(created, updated))
+                .verifyComplete();
+
+        verify(events).markPublished(eq(ids), any());
+        Assertions.assertEquals(2.0, registry.get("users.outbox.published").counter().count());
+    }
+
+    @Test
+    void testFailedPublishLeavesEventsPendingForRedelivery() {
+        UserEvent created = UserEvent.of(CREATED, "1", 0L, "maxwell", "maxwell@mail.com");
+        UserEventSink failing = batch -> Mono.error(new IllegalStateException("broker down"));
+        when(events.findPendingIds(any(), anyInt())).thenReturn(Flux.just(created.getId()));
+        when(events.lease(anyList(), anyString(), any(), any())).thenReturn(Mono.just(1L));
+        when(events.findLeased(anyList(), anyString())).thenReturn(Flux.just(created));
+
+        StepVerifier.create(new UserOutboxRelay(events, failing, new TenantRegistry(properties(10)), properties(10), registry).drain())
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+
+        verify(events, never()).markPublished(anyList(), any());
+    }
+
+    @Test
+    void testEventsWithoutSubscriberAreNotMarkedPublished() {
+        UserEvent created = UserEvent.of(CREATED, "1", 0L, "maxwell", "maxwell@mail.com");
+        when(events.findPendingIds(any(), anyInt())).thenReturn(Flux.just(created.getId()));
+        when(events.lease(anyList(), anyString(), any(), any())).thenReturn(Mono.just(1L));
+        when(events.findLeased(anyList(), anyString())).thenReturn(Flux.just(created));
+
+        StepVerifier.create(relay(10).drain())
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+
+        verify(events, never()).markPublished(anyList(), any());
+    }
+
+    @Test
+    void testDrainKeepsGoingWhileBatchesAreFull() {
+        UserEvent first = UserEvent.of(CREATED, "1", 0L, "maxwell", "maxwell@mail.com");
+        UserEvent second = UserEvent.of(CREATED, "2", 0L, "joana", "joana@mail.com");
+        when(events.findPendingIds(any(), anyInt()))
+                .thenReturn(Flux.just(first.getId()), Flux.just(second.getId()), Flux.empty());
+        when(events.lease(anyList(), anyString(), any(), any())).thenReturn(Mono.just(1L));
+        when(events.findLeased(anyList(), anyString())).thenReturn(Flux.just(first), Flux.just(second));
+        when(events.markPublished(anyList(), any())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(sink.events().take(2).collectList())
+                .then(() -> relay(1).drain().block(Duration.ofSeconds(5)))
+                .expectNext(List.of(first, second))
+                .verifyComplete();
+
+        verify(events, times(3)).findPendingIds(any(), anyInt());
+        verify(events, times(2)).markPublished(anyList(), any());
+    }
+
+    private UserOutboxRelay relay(int batchSize) {
+        UserProperties properties = properties(batchSize);
+        return new UserOutboxRelay(events, sink, new TenantRegistry(properties), properties, registry);
+    }
+
+    private static UserProperties properties(int batchSize) {
+        UserProperties properties = new UserProperties();
+        properties.getOutbox().setNodeId("node-a");
+        properties.getOutbox().setBatchSize(batchSize);
+        return properties;
+    }
+}